@@ -3,6 +3,7 @@ plugins {
 	id("org.springframework.boot") version "3.5.4"
 	id("io.spring.dependency-management") version "1.1.7"
 	id("jacoco")
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.banking"
@@ -18,17 +19,66 @@ repositories {
 	mavenCentral()
 }
 
+sourceSets {
+	create("loadtest") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations["loadtestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadtestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("org.springframework.boot:spring-boot-starter-aop")
+	implementation("org.springframework.boot:spring-boot-starter-cache")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("com.fasterxml.jackson.module:jackson-module-blackbird")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+	implementation("org.flywaydb:flyway-core")
+	runtimeOnly("org.flywaydb:flyway-database-postgresql")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	runtimeOnly("org.postgresql:postgresql")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testImplementation("io.zonky.test:embedded-postgres:2.1.0")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+	jmh("io.zonky.test:embedded-postgres:2.1.0")
+	"loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 	finalizedBy(tasks.jacocoTestReport, tasks.jacocoTestCoverageVerification)
 }
+
+// Benchmarks live in src/jmh; run with ./gradlew jmh (optionally -Pjmh.includes=<regex>).
+// Results are written as JSON so runs can be diffed to spot regressions.
+jmh {
+	jmhVersion = "1.37"
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+	if (project.hasProperty("jmh.includes")) {
+		includes = listOf(project.property("jmh.includes") as String)
+	}
+}
+
+// HTTP load test against a locally booted backend (or -Ploadtest.baseUrl=...). Any -Ploadtest.* property is
+// forwarded as a system property; see LoadTestConfig for the full list. -Ploadtest.compareThreads=true runs the
+// suite once on platform and once on virtual threads and reports the difference, plus JFR pinning sites.
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Drives a configurable request mix at every customer route and reports latency percentiles."
+	classpath = sourceSets["loadtest"].runtimeClasspath
+	mainClass = "com.banking.backend.loadtest.LoadTestRunner"
+	workingDir = projectDir
+	systemProperty("loadtest.results", layout.buildDirectory.file("reports/loadtest/results.json").get().asFile.path)
+	systemProperties(project.properties.filterKeys { it.startsWith("loadtest.") })
+}
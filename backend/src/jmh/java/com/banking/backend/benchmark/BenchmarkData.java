@@ -0,0 +1,35 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.model.Customer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static CustomerCreateDTO createDTO(long n) {
+        return new CustomerCreateDTO("John", "Doe", "bench" + n + "@example.com", n + " Main St", phone(n), LocalDate.of(1990, 1, 1));
+    }
+
+    static Customer customer(long n) {
+        return new Customer(UUID.randomUUID(), "John", "Doe", "bench" + n + "@example.com", n + " Main St", phone(n), LocalDate.of(1990, 1, 1));
+    }
+
+    static List<CustomerResponseDTO> responses(int size) {
+        List<CustomerResponseDTO> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            responses.add(new CustomerResponseDTO(UUID.randomUUID(), "John", "Doe", "bench" + i + "@example.com", i + " Main St", phone(i), LocalDate.of(1990, 1, 1), 0L));
+        }
+        return responses;
+    }
+
+    static String phone(long n) {
+        return "+1" + String.format("%010d", n % 10_000_000_000L);
+    }
+}
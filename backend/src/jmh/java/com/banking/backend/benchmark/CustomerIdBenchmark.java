@@ -0,0 +1,104 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.model.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Random v4 ids against time-ordered v7 ids (UuidV7Generator) on a customers table already holding `rows` rows.
+// The score is the time to insert one batch of BATCH customers at that size. After each iteration the primary-key
+// index size and the index blocks PostgreSQL had to read from outside shared_buffers are printed: v4 keeps
+// splitting pages across the whole btree and touching cold ones, v7 only ever appends to the rightmost leaf.
+//
+// Rows are written with plain JDBC batches so only the id order differs between the two runs. Seeding 10M rows
+// takes several minutes per strategy; run with -Pjmh.includes=CustomerIdBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CustomerIdBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final String INSERT = "insert into customers (id, first_name, last_name, email, address, phone, dob, created_at, updated_at, version) "
+            + "values (?, 'John', 'Doe', ?, ?, ?, ?, now(), now(), 0)";
+
+    @Param({"v4", "v7"})
+    private String ids;
+
+    @Param({"10000000"})
+    private long rows;
+
+    private EmbeddedBackend backend;
+    private JdbcTemplate jdbcTemplate;
+    private Supplier<UUID> generator;
+    private long sequence;
+    private long blocksReadAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // The in-memory indexes would otherwise load the seeded table; they play no part in the insert path measured
+        backend = EmbeddedBackend.start("--customer.lookup.enabled=false", "--customer.email-index.enabled=false");
+        jdbcTemplate = backend.bean(JdbcTemplate.class);
+        generator = ids.equals("v7") ? UuidV7Generator::next : UUID::randomUUID;
+
+        long started = System.nanoTime();
+        while (sequence < rows) {
+            insertBatch();
+        }
+        jdbcTemplate.execute("vacuum analyze customers");
+        System.out.printf("%n[%s] seeded %,d rows in %,d s; %s%n", ids, rows,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), indexReport());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void markBlocksRead() {
+        blocksReadAtStart = primaryKeyBlocksRead();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n[%s] %s; pk blocks read this iteration: %,d%n", ids, indexReport(), primaryKeyBlocksRead() - blocksReadAtStart);
+    }
+
+    @Benchmark
+    public int insertBatch() {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long n = sequence++;
+            batch.add(new Object[] {generator.get(), "bench" + n + "@example.com", n + " Main St", BenchmarkData.phone(n), Date.valueOf(LocalDate.of(1990, 1, 1))});
+        }
+        return jdbcTemplate.batchUpdate(INSERT, batch).length;
+    }
+
+    private String indexReport() {
+        // Summed over the hash partitions' primary keys; the partitioned parent's own index holds no data
+        long pkBytes = jdbcTemplate.queryForObject("select sum(pg_relation_size(i.indexrelid)) from pg_index i "
+                + "join pg_partition_tree('customers') t on t.relid = i.indrelid where i.indisprimary", Long.class);
+        return String.format("pk index %,d MB (%.1f bytes/row)", pkBytes >> 20, (double) pkBytes / sequence);
+    }
+
+    private long primaryKeyBlocksRead() {
+        return jdbcTemplate.queryForObject("select sum(s.idx_blks_read) from pg_statio_user_indexes s "
+                + "join pg_index i on i.indexrelid = s.indexrelid "
+                + "join pg_partition_tree('customers') t on t.relid = s.relid where i.indisprimary", Long.class);
+    }
+}
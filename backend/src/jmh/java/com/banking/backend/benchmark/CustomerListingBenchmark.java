@@ -0,0 +1,75 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.service.CustomerBatchService;
+import com.banking.backend.customer.service.CustomerExportService;
+import com.banking.backend.customer.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full-table reads: the materialised list endpoint versus the streaming NDJSON export.
+// Run with -prof gc to compare allocation per operation as well as time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CustomerListingBenchmark {
+
+    private static final int SEED_CHUNK = 1000;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private EmbeddedBackend backend;
+    private CustomerService customerService;
+    private CustomerExportService customerExportService;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = EmbeddedBackend.start("--customer.batch.max-size=" + SEED_CHUNK);
+        customerService = backend.bean(CustomerService.class);
+        customerExportService = backend.bean(CustomerExportService.class);
+        objectMapper = backend.bean(ObjectMapper.class);
+
+        CustomerBatchService batchService = backend.bean(CustomerBatchService.class);
+        for (int start = 0; start < rows; start += SEED_CHUNK) {
+            List<CustomerCreateDTO> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int n = start; n < Math.min(rows, start + SEED_CHUNK); n++) {
+                chunk.add(BenchmarkData.createDTO(n));
+            }
+            batchService.createCustomers(chunk);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    // Mirrors GET /api/v1/customers: load the whole list, then serialise it as one JSON array
+    @Benchmark
+    public int listAll() throws Exception {
+        List<CustomerResponseDTO> customers = customerService.getAllCustomers();
+        objectMapper.writeValue(OutputStream.nullOutputStream(), customers);
+        return customers.size();
+    }
+
+    @Benchmark
+    public long exportNdjson() throws Exception {
+        return customerExportService.exportCustomers(OutputStream.nullOutputStream());
+    }
+}
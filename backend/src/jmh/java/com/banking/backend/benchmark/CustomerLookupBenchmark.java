@@ -0,0 +1,71 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerLookupMatchDTO;
+import com.banking.backend.customer.index.CustomerLookupIndex;
+import com.banking.backend.customer.service.CustomerBatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Typo-tolerant lookups against the in-memory trigram index at call-center scale. Names are drawn from small
+// pools so common grams ("  j", " sm") have long posting lists, which is the expensive case for scoring.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerLookupBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int SEED_CHUNK = 1000;
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Maria", "Ahmed", "Wei", "Olga", "Pedro", "Aisha", "Liam", "Sofia"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Garcia", "Khan", "Chen", "Ivanova", "Silva", "Okafor", "Murphy", "Rossi",
+            "Nguyen", "Müller", "Kowalski", "Haddad", "Tanaka", "Larsen", "Dubois", "Moreau", "Novak", "Costa"};
+
+    @Param({"Jon Smtih", "mariagarcia@example", "Kowalsky 42 Main"})
+    private String query;
+
+    private EmbeddedBackend backend;
+    private CustomerLookupIndex lookupIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = EmbeddedBackend.start("--customer.batch.max-size=" + SEED_CHUNK);
+        lookupIndex = backend.bean(CustomerLookupIndex.class);
+
+        CustomerBatchService batchService = backend.bean(CustomerBatchService.class);
+        for (int start = 0; start < ROWS; start += SEED_CHUNK) {
+            List<CustomerCreateDTO> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int n = start; n < start + SEED_CHUNK; n++) {
+                String first = FIRST_NAMES[n % FIRST_NAMES.length];
+                String last = LAST_NAMES[(n / FIRST_NAMES.length) % LAST_NAMES.length];
+                String email = (first + last + n + "@example.com").toLowerCase();
+                chunk.add(new CustomerCreateDTO(first, last, email, n + " Main St", BenchmarkData.phone(n), LocalDate.of(1990, 1, 1)));
+            }
+            batchService.createCustomers(chunk);
+        }
+        while (!lookupIndex.isReady()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Benchmark
+    public List<CustomerLookupMatchDTO> lookup() {
+        return lookupIndex.search(query, 10);
+    }
+}
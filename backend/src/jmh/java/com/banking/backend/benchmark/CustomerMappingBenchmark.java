@@ -0,0 +1,39 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.service.CustomerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerMappingBenchmark {
+
+    private CustomerCreateDTO createDTO;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        createDTO = BenchmarkData.createDTO(1);
+        customer = BenchmarkData.customer(1);
+    }
+
+    @Benchmark
+    public Customer mapToEntity() {
+        return CustomerMapper.mapToEntity(createDTO);
+    }
+
+    @Benchmark
+    public CustomerResponseDTO mapToResponseDTO() {
+        return CustomerMapper.mapToResponseDTO(customer);
+    }
+}
@@ -0,0 +1,122 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.model.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The hash-partitioned customers table of V3__partition_customers_by_id.sql against the single table of V2, both
+// holding `rows` customers:
+//   lookupById   - one customer by primary key; the driver's server-side prepared statement prunes to one partition
+//   insertBatch  - BATCH new customers, with email uniqueness enforced by the constraint or by the lookup-table trigger
+//   vacuum       - VACUUM after 5% of the rows were updated, in milliseconds per run
+// After the vacuum runs the largest single heap is printed: that, not the total, bounds what one autovacuum worker
+// has to get through. The monolithic layout runs Flyway only up to V2 and queries through plain JDBC, as the
+// entities now map the V3 schema. Run with -Pjmh.includes=CustomerPartitionBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerPartitionBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final int SAMPLE_EVERY = 100;
+    private static final String INSERT = "insert into customers (id, first_name, last_name, email, address, phone, dob, created_at, updated_at, version) "
+            + "values (?, 'John', 'Doe', ?, ?, ?, ?, now(), now(), 0)";
+
+    @Param({"partitioned", "monolithic"})
+    private String layout;
+
+    @Param({"1000000"})
+    private long rows;
+
+    private EmbeddedBackend backend;
+    private JdbcTemplate jdbcTemplate;
+    private final List<UUID> sampledIds = new ArrayList<>();
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<String> args = new ArrayList<>(List.of("--customer.lookup.enabled=false", "--customer.email-index.enabled=false"));
+        if (layout.equals("monolithic")) {
+            args.addAll(List.of("--spring.flyway.target=2", "--spring.jpa.hibernate.ddl-auto=none"));
+        }
+        backend = EmbeddedBackend.start(args.toArray(String[]::new));
+        jdbcTemplate = backend.bean(JdbcTemplate.class);
+
+        long started = System.nanoTime();
+        while (sequence < rows) {
+            insert(true);
+        }
+        jdbcTemplate.execute("vacuum analyze customers");
+        System.out.printf("%n[%s] seeded %,d rows in %,d s%n", layout, rows, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> lookupById() {
+        UUID id = sampledIds.get(ThreadLocalRandom.current().nextInt(sampledIds.size()));
+        return jdbcTemplate.queryForMap("select * from customers where id = ?", id);
+    }
+
+    @Benchmark
+    public int insertBatch() {
+        return insert(false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void vacuum(Churn churn) {
+        jdbcTemplate.execute("vacuum customers");
+    }
+
+    // Leaves 5% of the rows dead before each vacuum run; only the vacuum benchmark depends on it
+    @State(Scope.Benchmark)
+    public static class Churn {
+
+        @Setup(Level.Iteration)
+        public void updateRows(CustomerPartitionBenchmark benchmark) {
+            benchmark.jdbcTemplate.update("update customers set version = version + 1 where random() < 0.05");
+        }
+
+        @TearDown(Level.Trial)
+        public void report(CustomerPartitionBenchmark benchmark) {
+            long largestHeap = benchmark.jdbcTemplate.queryForObject("select max(pg_relation_size(relid)) from pg_partition_tree('customers') "
+                    + "where isleaf", Long.class);
+            System.out.printf("%n[%s] largest heap a single vacuum covers: %,d MB%n", benchmark.layout, largestHeap >> 20);
+        }
+    }
+
+    private int insert(boolean sample) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long n = sequence++;
+            UUID id = UuidV7Generator.next();
+            if (sample && n % SAMPLE_EVERY == 0) {
+                sampledIds.add(id);
+            }
+            batch.add(new Object[] {id, "bench" + n + "@example.com", n + " Main St", BenchmarkData.phone(n), Date.valueOf(LocalDate.of(1990, 1, 1))});
+        }
+        return jdbcTemplate.batchUpdate(INSERT, batch).length;
+    }
+}
@@ -0,0 +1,87 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerPatchDTO;
+import com.banking.backend.customer.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Phone-only PATCH through the service (dynamic UPDATE of phone + updatedAt) against the all-columns UPDATE
+// Hibernate issued before. Time is the JMH score; WAL bytes per op are printed after each iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerPatchBenchmark {
+
+    private static final String FULL_ROW_UPDATE = "update customers set address = ?, dob = ?, email = ?, first_name = ?, "
+            + "last_name = ?, phone = ?, updated_at = now() where id = ?";
+
+    @Param({"dynamic", "fullRow"})
+    private String update;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private EmbeddedBackend backend;
+    private CustomerService customerService;
+    private JdbcTemplate jdbcTemplate;
+    private UUID id;
+    private String email;
+    private long walAtStart;
+    private long opsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = EmbeddedBackend.start();
+        customerService = backend.bean(CustomerService.class);
+        jdbcTemplate = backend.bean(JdbcTemplate.class);
+        long n = sequence.incrementAndGet();
+        id = customerService.createCustomer(BenchmarkData.createDTO(n)).id();
+        email = "bench" + n + "@example.com";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void markWal() {
+        walAtStart = currentWalLsn();
+        opsAtStart = sequence.get();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportWal() {
+        long ops = sequence.get() - opsAtStart;
+        if (ops > 0) {
+            System.out.printf("%n[%s] WAL bytes/op: %.1f%n", update, (double) (currentWalLsn() - walAtStart) / ops);
+        }
+    }
+
+    @Benchmark
+    public Object patchPhone() {
+        String phone = BenchmarkData.phone(sequence.incrementAndGet());
+        if (update.equals("dynamic")) {
+            CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, phone, null);
+            return customerService.partialUpdateCustomer(id, patchDTO, null);
+        }
+        // Same read-then-write shape as the service so the timings stay comparable
+        jdbcTemplate.queryForMap("select * from customers where id = ?", id);
+        return jdbcTemplate.update(FULL_ROW_UPDATE, "1 Main St", LocalDate.of(1990, 1, 1), email, "John", "Doe", phone, id);
+    }
+
+    private long currentWalLsn() {
+        return jdbcTemplate.queryForObject("select pg_wal_lsn_diff(pg_current_wal_insert_lsn(), '0/0')::bigint", Long.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.service.CustomerBatchService;
+import com.banking.backend.customer.service.CustomerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// getById/getAll read paths below the cache: managed entities mapped to DTOs (the old path) against
+// constructor-expression projections. Run with -prof gc to compare allocation per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerReadPathBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int SEED_CHUNK = 1000;
+
+    @Param({"entity", "projection"})
+    private String path;
+
+    private EmbeddedBackend backend;
+    private CustomerRepository customerRepository;
+    private TransactionTemplate readOnly;
+    private UUID existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = EmbeddedBackend.start("--customer.batch.max-size=" + SEED_CHUNK);
+        customerRepository = backend.bean(CustomerRepository.class);
+        readOnly = new TransactionTemplate(backend.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        CustomerBatchService batchService = backend.bean(CustomerBatchService.class);
+        for (int start = 0; start < ROWS; start += SEED_CHUNK) {
+            List<CustomerCreateDTO> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int n = start; n < start + SEED_CHUNK; n++) {
+                chunk.add(BenchmarkData.createDTO(n));
+            }
+            batchService.createCustomers(chunk);
+        }
+        existingId = customerRepository.findAllResponses().get(ROWS / 2).id();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Benchmark
+    public CustomerResponseDTO getById() {
+        return readOnly.execute(status -> path.equals("entity")
+                ? customerRepository.findById(existingId).map(CustomerMapper::mapToResponseDTO).orElseThrow()
+                : customerRepository.findResponseById(existingId).orElseThrow());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<CustomerResponseDTO> getAll() {
+        return readOnly.execute(status -> path.equals("entity")
+                ? customerRepository.findAll().stream().map(CustomerMapper::mapToResponseDTO).toList()
+                : customerRepository.findAllResponses());
+    }
+}
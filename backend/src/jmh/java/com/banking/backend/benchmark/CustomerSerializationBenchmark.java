@@ -0,0 +1,68 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compare "plain" with "blackbird" for the effect of BlackbirdModule; run against the parent commit for the
+// JavaBean-DTO numbers from before the move to records.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int listSize;
+
+    @Param({"plain", "blackbird"})
+    private String mapper;
+
+    private ObjectWriter listWriter;
+    private ObjectReader createReader;
+    private List<CustomerResponseDTO> responses;
+    private byte[] createJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same modules and settings Spring Boot applies to the application's ObjectMapper
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModules(new Jdk8Module(), new JavaTimeModule(), new ParameterNamesModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (mapper.equals("blackbird")) {
+            builder.addModule(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, CustomerResponseDTO.class));
+        createReader = objectMapper.readerFor(CustomerCreateDTO.class);
+        responses = BenchmarkData.responses(listSize);
+        createJson = objectMapper.writeValueAsBytes(BenchmarkData.createDTO(1));
+    }
+
+    @Benchmark
+    public byte[] serializeResponseList() throws Exception {
+        return listWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public CustomerCreateDTO deserializeCreateRequest() throws Exception {
+        return createReader.readValue(createJson);
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.customer.dto.CustomerPatchDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// End-to-end service calls against embedded PostgreSQL: each op pays the real transaction and SQL cost.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerServiceCycleBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private EmbeddedBackend backend;
+    private CustomerService customerService;
+    private UUID existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = EmbeddedBackend.start();
+        customerService = backend.bean(CustomerService.class);
+        existingId = customerService.createCustomer(BenchmarkData.createDTO(sequence.incrementAndGet())).id();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Benchmark
+    public CustomerResponseDTO create() {
+        return customerService.createCustomer(BenchmarkData.createDTO(sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public CustomerResponseDTO getById() {
+        return customerService.getCustomerById(existingId);
+    }
+
+    @Benchmark
+    public CustomerResponseDTO createGetPatchCycle() {
+        long n = sequence.incrementAndGet();
+        UUID id = customerService.createCustomer(BenchmarkData.createDTO(n)).id();
+        customerService.getCustomerById(id);
+
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, BenchmarkData.phone(n + 1), null);
+        return customerService.partialUpdateCustomer(id, patchDTO, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.BackendApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the application against a throwaway PostgreSQL process so service benchmarks hit a real database
+// without Docker or a local install.
+final class EmbeddedBackend implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedBackend(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    // The schema comes from the Flyway migrations, as in production
+    static EmbeddedBackend start(String... extraArgs) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        return new EmbeddedBackend(postgres, boot(postgres, extraArgs));
+    }
+
+    // Boots an application context against an already running database; the caller closes it
+    static ConfigurableApplicationContext boot(EmbeddedPostgres postgres, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(extraArgs));
+
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    EmbeddedPostgres postgres() {
+        return postgres;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.banking.backend.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.concurrent.TimeUnit;
+
+// Application context start-up against a database that already holds the schema, i.e. an ordinary restart.
+// "update" is the former setup: Hibernate reads the catalog and diffs every table before it can start.
+// "flyway" is the current one: Flyway checks its history table and Hibernate only validates.
+// Each measurement is one boot, in milliseconds; the in-memory indexes are off so only schema handling differs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    private static final String[] NO_INDEXES = {"--customer.lookup.enabled=false", "--customer.email-index.enabled=false"};
+
+    @Param({"update", "flyway"})
+    private String schema;
+
+    private EmbeddedPostgres postgres;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        // First boot migrates an empty database; the benchmark then measures restarts
+        EmbeddedBackend.boot(postgres, NO_INDEXES).close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Benchmark
+    public boolean boot() {
+        String[] args = schema.equals("update")
+                ? new String[] {NO_INDEXES[0], NO_INDEXES[1], "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update"}
+                : NO_INDEXES;
+        try (ConfigurableApplicationContext context = EmbeddedBackend.boot(postgres, args)) {
+            return context.isActive();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Builds and sends one request per route. Reads and updates target a fixed seeded pool; deletes consume
+// customers created by this run so the pool never shrinks mid-test.
+final class CustomerTraffic {
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentLinkedQueue<UUID> deletable = new ConcurrentLinkedQueue<>();
+    private UUID[] pool = new UUID[0];
+
+    CustomerTraffic(HttpClient client, ObjectMapper objectMapper, String baseUrl) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    void seed(int customers) throws IOException, InterruptedException {
+        UUID[] seeded = new UUID[customers];
+        for (int i = 0; i < customers; i++) {
+            HttpResponse<String> response = send(createRequest());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            seeded[i] = UUID.fromString(objectMapper.readTree(response.body()).get("id").asText());
+        }
+        pool = seeded;
+    }
+
+    // Returns the HTTP status, or -1 when the route had nothing to act on (e.g. no deletable customers yet)
+    int execute(Route route) throws IOException, InterruptedException {
+        HttpRequest request = switch (route) {
+            case CREATE -> createRequest();
+            case GET_BY_ID -> HttpRequest.newBuilder(uri("/api/v1/customers/" + randomPooled())).GET().build();
+            case GET_ALL -> HttpRequest.newBuilder(uri("/api/v1/customers")).GET().build();
+            case UPDATE -> json(HttpRequest.newBuilder(uri("/api/v1/customers/" + randomPooled())), "PUT", customerBody());
+            case PATCH -> json(HttpRequest.newBuilder(uri("/api/v1/customers/" + randomPooled())), "PATCH", Map.of("phone", phone(sequence.incrementAndGet())));
+            case DELETE -> {
+                UUID id = deletable.poll();
+                yield id == null ? null : HttpRequest.newBuilder(uri("/api/v1/customers/" + id)).DELETE().build();
+            }
+        };
+        if (request == null) {
+            return -1;
+        }
+
+        HttpResponse<String> response = send(request);
+        if (route == Route.CREATE && response.statusCode() == 200) {
+            JsonNode body = objectMapper.readTree(response.body());
+            deletable.add(UUID.fromString(body.get("id").asText()));
+        }
+        return response.statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest createRequest() throws IOException {
+        return json(HttpRequest.newBuilder(uri("/api/v1/customers")), "POST", customerBody());
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, Object body) throws IOException {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private Map<String, Object> customerBody() {
+        long n = sequence.incrementAndGet();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("firstName", "Load");
+        body.put("lastName", "Test");
+        body.put("email", "lt-" + runId + "-" + n + "@example.com");
+        body.put("address", n + " Load St");
+        body.put("phone", phone(n));
+        body.put("dob", "1990-01-01");
+        return body;
+    }
+
+    private UUID randomPooled() {
+        return pool[ThreadLocalRandom.current().nextInt(pool.length)];
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String phone(long n) {
+        return "+1" + String.format("%010d", n % 10_000_000_000L);
+    }
+}
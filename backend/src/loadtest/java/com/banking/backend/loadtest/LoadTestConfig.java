@@ -0,0 +1,79 @@
+package com.banking.backend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// All settings come from -Dloadtest.* system properties (Gradle forwards -Ploadtest.* ones).
+final class LoadTestConfig {
+
+    private static final String DEFAULT_MIX = "create=10,getById=50,getAll=2,update=10,patch=18,delete=10";
+
+    final String baseUrl;
+    final String[] appArgs;
+    final Duration warmup;
+    final Duration duration;
+    final int concurrency;
+    final int seedCustomers;
+    final String mixSpec;
+    final Map<Route, Integer> mix;
+    final Path results;
+    final Path baseline;
+    final double tolerance;
+    final boolean failOnRegression;
+    final boolean updateBaseline;
+    final boolean compareThreads;
+
+    private LoadTestConfig() {
+        baseUrl = System.getProperty("loadtest.baseUrl");
+        String args = System.getProperty("loadtest.appArgs", "").trim();
+        appArgs = args.isEmpty() ? new String[0] : args.split("\\s+");
+        warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+        duration = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60));
+        concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        seedCustomers = Integer.getInteger("loadtest.seedCustomers", 1000);
+        mixSpec = System.getProperty("loadtest.mix", DEFAULT_MIX);
+        mix = parseMix(mixSpec);
+        results = Path.of(System.getProperty("loadtest.results", "build/reports/loadtest/results.json"));
+        baseline = Path.of(System.getProperty("loadtest.baseline", "loadtest/baseline.json"));
+        tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.10"));
+        failOnRegression = Boolean.getBoolean("loadtest.failOnRegression");
+        updateBaseline = Boolean.getBoolean("loadtest.updateBaseline");
+        compareThreads = Boolean.getBoolean("loadtest.compareThreads");
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    private static Map<Route, Integer> parseMix(String spec) {
+        Map<Route, Integer> weights = new EnumMap<>(Route.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(routeFor(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no routes");
+        }
+        return weights;
+    }
+
+    private static Route routeFor(String name) {
+        return switch (name) {
+            case "create" -> Route.CREATE;
+            case "getById" -> Route.GET_BY_ID;
+            case "getAll" -> Route.GET_ALL;
+            case "update" -> Route.UPDATE;
+            case "patch" -> Route.PATCH;
+            case "delete" -> Route.DELETE;
+            default -> throw new IllegalArgumentException("Unknown route in loadtest.mix: " + name);
+        };
+    }
+}
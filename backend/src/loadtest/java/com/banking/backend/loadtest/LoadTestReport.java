@@ -0,0 +1,68 @@
+package com.banking.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// One run's results keyed by route label, stored as JSON so a run can be promoted to the baseline as-is.
+record LoadTestReport(int concurrency, long durationSeconds, String mix, Map<String, RouteResult> routes) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    static LoadTestReport read(Path path) throws IOException {
+        return JSON.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        JSON.writeValue(path.toFile(), this);
+    }
+
+    String summary() {
+        StringBuilder out = new StringBuilder(String.format("%-32s %10s %8s %10s %10s %10s %10s %10s%n",
+                "route", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        routes.forEach((route, r) -> out.append(String.format("%-32s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                route, r.requests(), r.errors(), r.throughput(), r.p50(), r.p99(), r.p999(), r.max())));
+        return out.toString();
+    }
+
+    // A route regresses when any percentile is slower, or throughput lower, than the baseline by more than tolerance.
+    // Routes missing from either side are listed but never count as a regression.
+    Comparison compareTo(LoadTestReport baseline, double tolerance) {
+        List<String> lines = new ArrayList<>();
+        boolean regressed = false;
+        lines.add(String.format("%-32s %-10s %10s %10s %9s", "route", "metric", "baseline", "current", "change"));
+        for (Map.Entry<String, RouteResult> entry : routes.entrySet()) {
+            RouteResult before = baseline.routes().get(entry.getKey());
+            if (before == null) {
+                lines.add(String.format("%-32s (not in baseline)", entry.getKey()));
+                continue;
+            }
+            RouteResult now = entry.getValue();
+            regressed |= compare(lines, entry.getKey(), "req/s", before.throughput(), now.throughput(), tolerance, false);
+            regressed |= compare(lines, entry.getKey(), "p50 ms", before.p50(), now.p50(), tolerance, true);
+            regressed |= compare(lines, entry.getKey(), "p99 ms", before.p99(), now.p99(), tolerance, true);
+            regressed |= compare(lines, entry.getKey(), "p999 ms", before.p999(), now.p999(), tolerance, true);
+        }
+        return new Comparison(String.join(System.lineSeparator(), lines) + System.lineSeparator(), regressed);
+    }
+
+    private static boolean compare(List<String> lines, String route, String metric, double before, double now,
+                                   double tolerance, boolean lowerIsBetter) {
+        double change = before == 0 ? 0 : (now - before) / before;
+        boolean regressed = lowerIsBetter ? change > tolerance : change < -tolerance;
+        lines.add(String.format("%-32s %-10s %10.2f %10.2f %+8.1f%%%s",
+                route, metric, before, now, change * 100, regressed ? "  REGRESSION" : ""));
+        return regressed;
+    }
+
+    record Comparison(String text, boolean regressed) {
+    }
+}
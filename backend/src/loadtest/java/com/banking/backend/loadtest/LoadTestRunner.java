@@ -0,0 +1,233 @@
+package com.banking.backend.loadtest;
+
+import com.banking.backend.BackendApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop load generator: each worker sends its next request as soon as the previous one completes, so
+// tail latencies are per-request service times rather than corrected for coordinated omission.
+public final class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        boolean regressed = config.compareThreads
+                ? compareThreadModes(config)
+                : compareWithBaseline(run(config, config.results), config);
+
+        if (regressed && config.failOnRegression) {
+            System.exit(1);
+        }
+    }
+
+    private static LoadTestReport run(LoadTestConfig config, Path results, String... modeArgs) throws Exception {
+        ConfigurableApplicationContext app = config.baseUrl == null ? startBackend(config.appArgs, modeArgs) : null;
+        PinningMonitor pinning = app == null ? null : PinningMonitor.start();
+        try {
+            String baseUrl = app == null
+                    ? config.baseUrl
+                    : "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            CustomerTraffic traffic = new CustomerTraffic(client, new ObjectMapper(), baseUrl);
+
+            System.out.printf("Seeding %d customers at %s%n", config.seedCustomers, baseUrl);
+            traffic.seed(config.seedCustomers);
+
+            System.out.printf("Warming up for %ds%n", config.warmup.toSeconds());
+            drive(traffic, config, config.warmup);
+            System.out.printf("Measuring for %ds with %d workers%n", config.duration.toSeconds(), config.concurrency);
+            LoadTestReport report = drive(traffic, config, config.duration);
+
+            report.write(results);
+            System.out.println();
+            System.out.print(report.summary());
+            System.out.println("Results written to " + results);
+
+            if (pinning != null) {
+                Path pinningFile = sibling(results, "-pinning.txt");
+                String summary = pinning.stopAndSummarise();
+                Files.writeString(pinningFile, summary);
+                System.out.print(summary);
+                System.out.println("Pinning report written to " + pinningFile);
+            }
+            return report;
+        } finally {
+            if (pinning != null) {
+                pinning.close();
+            }
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    // Boots the backend once per thread model against the same database and reports virtual against platform,
+    // so a "regression" here means virtual threads were slower by more than the tolerance.
+    private static boolean compareThreadModes(LoadTestConfig config) throws Exception {
+        if (config.baseUrl != null) {
+            throw new IllegalArgumentException("loadtest.compareThreads boots the backend itself; drop loadtest.baseUrl");
+        }
+        System.out.println("== Platform threads");
+        LoadTestReport platform = run(config, sibling(config.results, "-platform.json"), "--spring.threads.virtual.enabled=false");
+        System.out.println();
+        System.out.println("== Virtual threads");
+        LoadTestReport virtual = run(config, sibling(config.results, "-virtual.json"), "--spring.threads.virtual.enabled=true");
+
+        LoadTestReport.Comparison comparison = virtual.compareTo(platform, config.tolerance);
+        Path comparisonFile = config.results.resolveSibling("threads-comparison.txt");
+        Files.writeString(comparisonFile, comparison.text());
+        System.out.println();
+        System.out.printf("Virtual threads compared with platform threads (tolerance %.0f%%)%n", config.tolerance * 100);
+        System.out.print(comparison.text());
+        System.out.println("Comparison written to " + comparisonFile);
+        return comparison.regressed();
+    }
+
+    private static ConfigurableApplicationContext startBackend(String[] appArgs, String[] modeArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(appArgs));
+        args.addAll(List.of(modeArgs));
+        return new SpringApplicationBuilder(BackendApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static Path sibling(Path results, String suffix) {
+        String name = results.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return results.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + suffix);
+    }
+
+    private static LoadTestReport drive(CustomerTraffic traffic, LoadTestConfig config, Duration length)
+            throws InterruptedException, IOException {
+        Map<Route, Histogram> latencies = new EnumMap<>(Route.class);
+        Map<Route, LongAdder> errors = new EnumMap<>(Route.class);
+        for (Route route : config.mix.keySet()) {
+            latencies.put(route, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(route, new LongAdder());
+        }
+        RoutePicker picker = new RoutePicker(config.mix);
+        long deadline = System.nanoTime() + length.toNanos();
+
+        Callable<Void> worker = () -> {
+            while (System.nanoTime() < deadline) {
+                Route route = picker.next();
+                long start = System.nanoTime();
+                int status;
+                try {
+                    status = traffic.execute(route);
+                } catch (IOException e) {
+                    status = 0;
+                }
+                if (status == -1) {
+                    continue;
+                }
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                latencies.get(route).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                if (status < 200 || status >= 300) {
+                    errors.get(route).increment();
+                }
+            }
+            return null;
+        };
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency);
+        try {
+            for (Future<Void> future : workers.invokeAll(Collections.nCopies(config.concurrency, worker))) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        double seconds = length.toMillis() / 1000.0;
+        Map<String, RouteResult> routes = new LinkedHashMap<>();
+        latencies.forEach((route, histogram) ->
+                routes.put(route.label(), RouteResult.from(histogram, errors.get(route).sum(), seconds)));
+        return new LoadTestReport(config.concurrency, config.duration.toSeconds(), config.mixSpec, routes);
+    }
+
+    private static boolean compareWithBaseline(LoadTestReport report, LoadTestConfig config) throws IOException {
+        boolean regressed = false;
+        if (Files.exists(config.baseline)) {
+            LoadTestReport.Comparison comparison = report.compareTo(LoadTestReport.read(config.baseline), config.tolerance);
+            Path comparisonFile = config.results.resolveSibling("comparison.txt");
+            Files.writeString(comparisonFile, comparison.text());
+            System.out.println();
+            System.out.printf("Compared with %s (tolerance %.0f%%)%n", config.baseline, config.tolerance * 100);
+            System.out.print(comparison.text());
+            System.out.println("Comparison written to " + comparisonFile);
+            regressed = comparison.regressed();
+        } else {
+            System.out.println("No baseline at " + config.baseline + "; run with -Ploadtest.updateBaseline=true to store one");
+        }
+
+        if (config.updateBaseline) {
+            if (config.baseline.getParent() != null) {
+                Files.createDirectories(config.baseline.getParent());
+            }
+            Files.copy(config.results, config.baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated at " + config.baseline);
+        }
+        return regressed;
+    }
+
+    // Weighted random choice over the configured mix
+    private static final class RoutePicker {
+
+        private final Route[] routes;
+        private final int[] cumulative;
+
+        RoutePicker(Map<Route, Integer> mix) {
+            routes = mix.keySet().toArray(Route[]::new);
+            cumulative = new int[routes.length];
+            int total = 0;
+            for (int i = 0; i < routes.length; i++) {
+                total += mix.get(routes[i]);
+                cumulative[i] = total;
+            }
+        }
+
+        Route next() {
+            int roll = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return routes[i];
+                }
+            }
+            return routes[routes.length - 1];
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.banking.backend.loadtest;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Records JFR jdk.VirtualThreadPinned events while the in-process backend is under load. Each pinned park is
+// attributed to the first frame in the JDBC driver, the connection pool or our own code, so a driver that
+// parks while holding a monitor shows up by name rather than as an anonymous carrier-thread stall.
+final class PinningMonitor implements AutoCloseable {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> ATTRIBUTED_PACKAGES = List.of("org.postgresql.", "com.zaxxer.hikari.", "org.hibernate.", "com.banking.");
+
+    private final Recording recording = new Recording();
+
+    private PinningMonitor() {
+        recording.enable(EVENT).withThreshold(Duration.ofMillis(1)).withStackTrace();
+        recording.start();
+    }
+
+    static PinningMonitor start() {
+        return new PinningMonitor();
+    }
+
+    String stopAndSummarise() throws IOException {
+        recording.stop();
+        Path dump = Files.createTempFile("loadtest-pinning", ".jfr");
+        try {
+            recording.dump(dump);
+            Map<String, long[]> bySite = new LinkedHashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                if (event.getEventType().getName().equals(EVENT)) {
+                    long[] totals = bySite.computeIfAbsent(site(event), site -> new long[2]);
+                    totals[0]++;
+                    totals[1] += event.getDuration().toMillis();
+                }
+            }
+            if (bySite.isEmpty()) {
+                return "No virtual thread pinning over 1 ms recorded" + System.lineSeparator();
+            }
+            StringBuilder out = new StringBuilder(String.format("%8s %10s  %s%n", "events", "total ms", "pinned at"));
+            bySite.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .forEach(e -> out.append(String.format("%8d %10d  %s%n", e.getValue()[0], e.getValue()[1], e.getKey())));
+            return out.toString();
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (ATTRIBUTED_PACKAGES.stream().anyMatch(type::startsWith)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        RecordedFrame top = frames.get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
+    }
+}
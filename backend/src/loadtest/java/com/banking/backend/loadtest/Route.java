@@ -0,0 +1,20 @@
+package com.banking.backend.loadtest;
+
+enum Route {
+    CREATE("POST /api/v1/customers"),
+    GET_BY_ID("GET /api/v1/customers/{id}"),
+    GET_ALL("GET /api/v1/customers"),
+    UPDATE("PUT /api/v1/customers/{id}"),
+    PATCH("PATCH /api/v1/customers/{id}"),
+    DELETE("DELETE /api/v1/customers/{id}");
+
+    private final String label;
+
+    Route(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+}
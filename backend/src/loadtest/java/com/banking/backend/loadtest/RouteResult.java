@@ -0,0 +1,22 @@
+package com.banking.backend.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+// Latencies are in milliseconds, recorded from request send to full body received.
+record RouteResult(long requests, long errors, double throughput, double p50, double p99, double p999, double max) {
+
+    static RouteResult from(Histogram histogram, long errors, double seconds) {
+        return new RouteResult(
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.banking.backend.customer.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import java.time.Duration;
+import java.util.List;
+
+// The cache advice runs outside the transaction advice: hits never open a transaction, and
+// @CachePut/@CacheEvict only fire once the service method has committed. Writes put the committed DTO rather than
+// just evicting, and VersionedCustomerCache keeps a slower concurrent miss from putting an older one back.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CustomerCacheConfig {
+
+    public static final String CUSTOMERS_CACHE = "customers";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${customer.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${customer.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CaffeineCache customers = new VersionedCustomerCache(CUSTOMERS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build());
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        // When the service is called from an enclosing transaction, puts and evictions wait for that transaction to
+        // commit. Cache metrics see through the decorator to the Caffeine cache.
+        cacheManager.setCaches(List.of(new TransactionAwareCacheDecorator(customers)));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.backend.customer.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Boot registers Module beans on its ObjectMapper. Blackbird swaps reflective accessor and constructor calls for
+// LambdaMetafactory-generated ones, which covers the record DTOs' accessors and canonical constructors.
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
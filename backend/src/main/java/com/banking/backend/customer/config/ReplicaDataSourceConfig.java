@@ -0,0 +1,67 @@
+package com.banking.backend.customer.config;
+
+import com.banking.backend.customer.datasource.ReadRoutingDataSource;
+import com.banking.backend.customer.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Active when customer.datasource.replica.url is set and customers are not sharded (ShardDataSourceConfig).
+// Read-write transactions keep using the primary pool built from spring.datasource.*; @Transactional(readOnly = true)
+// ones are served from the replica pool. The lazy proxy defers fetching a connection until the first statement, by
+// which point the transaction has marked it read-only and the routing can pick a pool. Reads fall back to the
+// primary while the replica lags beyond max-lag and for recently written data (ReadYourWrites, ReadYourWritesFilter).
+@Configuration
+@ConditionalOnExpression("!'${customer.datasource.replica.url:}'.isBlank() and !${customer.shards.enabled:false}")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("customer.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${customer.datasource.replica.url}") String url,
+                                              @Value("${customer.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${customer.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${customer.datasource.replica.max-lag:1s}") Duration maxLag,
+                                               @Value("${customer.datasource.replica.lag-check-interval:500ms}") Duration interval,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, maxLag, interval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReadRoutingDataSource(primary, replica, lagMonitor));
+        return routing;
+    }
+}
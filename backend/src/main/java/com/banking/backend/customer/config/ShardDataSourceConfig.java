@@ -0,0 +1,104 @@
+package com.banking.backend.customer.config;
+
+import com.banking.backend.customer.shard.EmailDirectory;
+import com.banking.backend.customer.shard.ShardProperties;
+import com.banking.backend.customer.shard.ShardRebalancer;
+import com.banking.backend.customer.shard.ShardRing;
+import com.banking.backend.customer.shard.ShardRoutingDataSource;
+import com.banking.backend.customer.shard.ShardTopology;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Active with customer.shards.enabled=true. Customers live on the databases under customer.shards.nodes, placed by
+// a consistent hash of their id; spring.datasource becomes the directory database holding the global email
+// directory and everything that is not a customer. Each shard is migrated with the same Flyway scripts at startup.
+// As with the replica routing, the lazy proxy defers the connection to the first statement, so CustomerShards can
+// still pick the shard inside an open transaction. Not combined with the read replica.
+@Configuration
+@ConditionalOnProperty(name = "customer.shards.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardDataSourceConfig implements DisposableBean {
+
+    private final List<HikariDataSource> shardPools = new ArrayList<>();
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource directoryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardTopology shardTopology(ShardProperties properties,
+                                       @Value("${spring.datasource.username}") String defaultUsername,
+                                       @Value("${spring.datasource.password}") String defaultPassword,
+                                       @Value("${customer.idempotency.persistent:false}") boolean persistentIdempotency) {
+        if (properties.nodes() == null || properties.nodes().isEmpty()) {
+            throw new IllegalStateException("customer.shards.enabled needs at least one customer.shards.nodes entry");
+        }
+        if (persistentIdempotency) {
+            // The key's record and the customer could no longer be written in one transaction
+            throw new IllegalStateException("customer.idempotency.persistent is not supported with customer.shards");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        properties.nodes().forEach((name, node) -> {
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(node.url())
+                    .username(node.username() != null ? node.username() : defaultUsername)
+                    .password(node.password() != null ? node.password() : defaultPassword)
+                    .build();
+            pool.setPoolName("shard-" + name);
+            shardPools.add(pool);
+            Flyway.configure()
+                    .dataSource(pool)
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+            shards.put(name, pool);
+        });
+
+        ShardRing ring = new ShardRing(shards.keySet(), properties.virtualNodes());
+        ShardRing previous = properties.previous().isEmpty() ? null : new ShardRing(properties.previous(), properties.virtualNodes());
+        return new ShardTopology(ring, previous, shards);
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(@Qualifier("directoryDataSource") DataSource directory, ShardTopology topology, ShardProperties properties) {
+        return new EmailDirectory(new JdbcTemplate(directory), topology, properties.orphanAfter());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardTopology topology, MeterRegistry meterRegistry) {
+        return new ShardRebalancer(topology, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("directoryDataSource") DataSource directory, ShardTopology topology) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(directory, topology.dataSources()));
+    }
+
+    @Override
+    public void destroy() {
+        shardPools.forEach(HikariDataSource::close);
+    }
+}
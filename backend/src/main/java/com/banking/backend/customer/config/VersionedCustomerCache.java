@@ -0,0 +1,60 @@
+package com.banking.backend.customer.config;
+
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+// The customers cache never goes back in time. A cache miss that read a row just before a write committed puts
+// its DTO after the writer's own put, so a put only replaces an entry holding a lower version. A delete leaves a
+// tombstone rather than an empty slot, which reads as a miss and refuses such late puts of the deleted row until
+// it expires with the rest of the cache.
+class VersionedCustomerCache extends CaffeineCache {
+
+    private static final Object TOMBSTONE = new Object();
+
+    VersionedCustomerCache(String name, Cache<Object, Object> cache) {
+        super(name, cache);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        return value == TOMBSTONE ? null : value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!(value instanceof CustomerResponseDTO customer)) {
+            super.put(key, value);
+            return;
+        }
+        getNativeCache().asMap().compute(key, (k, current) -> isNewer(customer, current) ? customer : current);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        getNativeCache().put(key, TOMBSTONE);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evict(key);
+        return true;
+    }
+
+    private static boolean isNewer(CustomerResponseDTO customer, Object current) {
+        if (current == TOMBSTONE) {
+            return false;
+        }
+        return !(current instanceof CustomerResponseDTO cached) || customer.version() > cached.version();
+    }
+}
@@ -0,0 +1,36 @@
+package com.banking.backend.customer.controller;
+
+import com.banking.backend.customer.dto.CustomerBatchResultDTO;
+import com.banking.backend.customer.dto.CustomerBulkDeleteResultDTO;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.service.CustomerBatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.UUID;
+
+
+// Custom-method style batch routes ("/customers:batch") sit beside the resource rather than under it,
+// so they are mapped from the API root instead of CustomerController's "/api/v1/customers".
+@RestController
+@RequestMapping("/api/v1")
+public class CustomerBatchController {
+
+    @Autowired
+    private CustomerBatchService customerBatchService;
+
+    @PostMapping("/customers:batch")
+    public ResponseEntity<List<CustomerBatchResultDTO>> createBatch(@RequestBody List<CustomerCreateDTO> dtos) {
+        return ResponseEntity.ok(customerBatchService.createCustomers(dtos));
+    }
+
+    @PostMapping("/customers:batchDelete")
+    public ResponseEntity<CustomerBulkDeleteResultDTO> deleteBatch(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(customerBatchService.deleteCustomers(ids));
+    }
+
+}
@@ -1,12 +1,23 @@
 package com.banking.backend.customer.controller;
 
 import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerLookupMatchDTO;
+import com.banking.backend.customer.dto.CustomerPageDTO;
 import com.banking.backend.customer.dto.CustomerPatchDTO;
 import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.dto.CustomerSearchCriteria;
 import com.banking.backend.customer.dto.CustomerUpdateDTO;
+import com.banking.backend.customer.idempotency.IdempotencyStore;
+import com.banking.backend.customer.service.CustomerExportService;
 import com.banking.backend.customer.service.CustomerService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,10 +28,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 
+@Timed(value = "customer.controller", histogram = true)
 @RestController
 @RequestMapping("/api/v1/customers")
 public class CustomerController {
@@ -28,14 +44,36 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerExportService customerExportService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private Validator validator;
+
+    // The body is validated inside the idempotent section rather than with @Valid, so a retry whose key already
+    // has a response is answered without validation, the email check or the INSERT
     @PostMapping
-    public ResponseEntity<CustomerResponseDTO> create(@Valid @RequestBody CustomerCreateDTO dto) {
-        return ResponseEntity.ok(customerService.createCustomer(dto));
+    public ResponseEntity<CustomerResponseDTO> create(@RequestBody CustomerCreateDTO dto,
+                                                      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        CustomerResponseDTO created = idempotencyStore.execute(idempotencyKey, dto, () -> {
+            Set<ConstraintViolation<CustomerCreateDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            return customerService.createCustomer(dto);
+        });
+        return ResponseEntity.ok().eTag(CustomerETags.of(created)).body(created);
     }
 
+    // Spring answers a matching If-None-Match with 304 before the body is serialized; with the cache in front,
+    // a revalidation costs neither a query nor any JSON
     @GetMapping("/{id}")
     public ResponseEntity<CustomerResponseDTO> getById(@PathVariable UUID id) {
-        return ResponseEntity.ok(customerService.getCustomerById(id));
+        CustomerResponseDTO customer = customerService.getCustomerById(id);
+        return ResponseEntity.ok().eTag(CustomerETags.of(customer)).body(customer);
     }
 
     @GetMapping
@@ -43,14 +81,43 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.getAllCustomers());
     }
 
+    // Keyset-paginated listing; clients opt in by passing a limit and follow nextCursor for further pages.
+    @GetMapping(params = "limit")
+    public ResponseEntity<CustomerPageDTO> getPage(@RequestParam int limit, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(customerService.getCustomerPage(cursor, limit));
+    }
+
+    // Filters are ANDed; each one is backed by an index so the query never scans the whole table
+    @GetMapping("/search")
+    public ResponseEntity<CustomerPageDTO> search(CustomerSearchCriteria criteria, @RequestParam(defaultValue = "20") int limit, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(customerService.searchCustomers(criteria, cursor, limit));
+    }
+
+    // Typo-tolerant match on name, email and address, ranked best first and served from memory
+    @GetMapping("/lookup")
+    public ResponseEntity<List<CustomerLookupMatchDTO>> lookup(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(customerService.lookupCustomers(q, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> customerExportService.exportCustomers(out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // With If-Match the write only applies to the named version and fails with 412 otherwise
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerResponseDTO> update(@PathVariable UUID id, @Valid @RequestBody CustomerUpdateDTO dto) {
-        return ResponseEntity.ok(customerService.updateCustomer(id, dto));
+    public ResponseEntity<CustomerResponseDTO> update(@PathVariable UUID id, @Valid @RequestBody CustomerUpdateDTO dto,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CustomerResponseDTO updated = customerService.updateCustomer(id, dto, CustomerETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(CustomerETags.of(updated)).body(updated);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<CustomerResponseDTO> partialUpdate(@PathVariable UUID id, @Valid @RequestBody CustomerPatchDTO dto) {
-        return ResponseEntity.ok(customerService.partialUpdateCustomer(id, dto));
+    public ResponseEntity<CustomerResponseDTO> partialUpdate(@PathVariable UUID id, @Valid @RequestBody CustomerPatchDTO dto,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CustomerResponseDTO updated = customerService.partialUpdateCustomer(id, dto, CustomerETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(CustomerETags.of(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,44 @@
+package com.banking.backend.customer.controller;
+
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.exception.CustomerVersionMismatchException;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.List;
+
+// A customer's ETag is its @Version, quoted: the version changes on every committed UPDATE and nothing else
+// about the representation can change without one.
+final class CustomerETags {
+
+    private CustomerETags() {
+    }
+
+    static String of(CustomerResponseDTO customer) {
+        return "\"" + customer.version() + "\"";
+    }
+
+    // The version an If-Match header requires, or null when the write is unconditional (no header, or "*").
+    // Weak tags never match for If-Match, so a header with no strong version fails the precondition.
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.stream().anyMatch(ETag::isWildcard)) {
+            return null;
+        }
+        List<ETag> strong = tags.stream().filter(tag -> !tag.weak()).toList();
+        if (strong.size() > 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must name a single customer version");
+        }
+        try {
+            if (strong.size() == 1) {
+                return Long.parseLong(strong.get(0).tag());
+            }
+        } catch (NumberFormatException ex) {
+            // fall through: an ETag this service never issued cannot match
+        }
+        throw new CustomerVersionMismatchException("If-Match " + ifMatch + " does not match the current customer version");
+    }
+}
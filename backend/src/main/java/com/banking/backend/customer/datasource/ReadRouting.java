@@ -0,0 +1,42 @@
+package com.banking.backend.customer.datasource;
+
+import java.util.function.Supplier;
+
+// Per-thread override that sends read-only work to the primary even though a replica is configured. Set by
+// ReadYourWritesFilter for the whole request and by ReadYourWrites around reads of a recently written customer.
+// It is consulted when the first statement of a read-only transaction actually fetches a connection.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPrimaryOnly() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean pinned = pin();
+        try {
+            return work.get();
+        } finally {
+            if (pinned) {
+                unpin();
+            }
+        }
+    }
+
+    // False when the thread was already pinned, in which case the caller must leave unpinning to the outer scope
+    static boolean pin() {
+        if (isPrimaryOnly()) {
+            return false;
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void unpin() {
+        PRIMARY_ONLY.remove();
+    }
+}
@@ -0,0 +1,27 @@
+package com.banking.backend.customer.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Target for read-only connections. LazyConnectionDataSourceProxy only asks it for a connection once the
+// transaction runs its first statement, so the choice sees the request's pinning and the latest lag reading.
+public class ReadRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReadRouting.isPrimaryOnly() || !lagMonitor.withinTolerance() ? Target.PRIMARY : Target.REPLICA;
+    }
+}
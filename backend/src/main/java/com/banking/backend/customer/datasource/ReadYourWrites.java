@@ -0,0 +1,42 @@
+package com.banking.backend.customer.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Customers written by this instance in the last sticky-for, whose reads skip the replica. Besides the writer's
+// own follow-up reads, this protects the customer cache: once the entry put on commit is gone, a replica that has
+// not replayed the write yet would otherwise refill it with the old row for the cache's whole TTL.
+// A no-op unless a replica is configured.
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final Cache<UUID, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${customer.datasource.replica.url:}") String replicaUrl,
+                          @Value("${customer.datasource.replica.sticky-for:5s}") Duration stickyFor) {
+        this.enabled = !replicaUrl.isBlank();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(stickyFor)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void written(UUID id) {
+        if (enabled) {
+            recentWrites.put(id, Boolean.TRUE);
+        }
+    }
+
+    public <T> T read(UUID id, Supplier<T> read) {
+        if (enabled && recentWrites.getIfPresent(id) != null) {
+            return ReadRouting.onPrimary(read);
+        }
+        return read.get();
+    }
+}
@@ -0,0 +1,66 @@
+package com.banking.backend.customer.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+// Client-level read-your-writes: a write request leaves a short-lived cookie, and requests carrying it read
+// from the primary until it expires, so a client never sees the replica undo its own change. Clients without a
+// cookie jar can send the cookie back themselves; the only cost of ignoring it is a possibly stale read.
+// Passes everything through untouched unless a replica is configured.
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "customer-recent-write";
+    private static final Set<String> WRITE_METHODS = Set.of(HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final boolean enabled;
+    private final int stickySeconds;
+
+    public ReadYourWritesFilter(@Value("${customer.datasource.replica.url:}") String replicaUrl,
+                                @Value("${customer.datasource.replica.sticky-for:5s}") Duration stickyFor) {
+        this.enabled = !replicaUrl.isBlank();
+        this.stickySeconds = (int) Math.max(1, stickyFor.toSeconds());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/v1/customers");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            // Set before the body is written; a write that fails only costs a few reads on the primary
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge(stickySeconds);
+            // Not /api/v1/customers: a cookie path only matches up to a '/', so /api/v1/customers:batch would miss it
+            cookie.setPath("/api/v1");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        boolean pinned = hasRecentWrite(request) && ReadRouting.pin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                ReadRouting.unpin();
+            }
+        }
+    }
+
+    private static boolean hasRecentWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        return cookies != null && Arrays.stream(cookies).anyMatch(cookie -> COOKIE.equals(cookie.getName()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.banking.backend.customer.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Polls the replica for how far its replay trails the primary. Reads go to the replica only while the last poll
+// succeeded, is recent and reported a lag within max-lag; anything else (replica down, replication stalled,
+// monitor thread starved) sends them to the primary until the next good poll.
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    // A replica that has replayed everything it received is caught up, however long ago the primary last committed,
+    // but only while its WAL receiver is streaming: once disconnected, the receive position stops where replay
+    // already is and would read as no lag forever. Without a streaming receiver the query yields null, which
+    // counts as not measured. The receiver's status is only shown to roles with pg_read_all_stats; for others,
+    // a receiver process being present has to do.
+    private static final String LAG_QUERY = "select case "
+            + "when not exists (select 1 from pg_stat_wal_receiver where pid is not null and coalesce(status, 'streaming') = 'streaming') then null "
+            + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end";
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Duration interval;
+    private final Thread poller;
+    private volatile long lagMillis = -1;
+    private volatile long checkedAtNanos;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration interval, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout((int) Math.max(1, interval.toSeconds()));
+        this.maxLag = maxLag;
+        this.interval = interval;
+        Gauge.builder("customer.datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .baseUnit("milliseconds")
+                .description("Replay lag of the read replica at the last poll; -1 when it could not be measured")
+                .register(meterRegistry);
+        this.poller = Thread.ofVirtual().name("customer-replica-lag-monitor").start(this::poll);
+    }
+
+    public boolean withinTolerance() {
+        long lag = lagMillis;
+        boolean fresh = System.nanoTime() - checkedAtNanos < interval.toNanos() * 3;
+        return lag >= 0 && fresh && lag <= maxLag.toMillis();
+    }
+
+    private void poll() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+                lagMillis = lag == null ? -1 : lag.longValue();
+            } catch (RuntimeException ex) {
+                lagMillis = -1;
+            }
+            checkedAtNanos = System.nanoTime();
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        poller.interrupt();
+    }
+}
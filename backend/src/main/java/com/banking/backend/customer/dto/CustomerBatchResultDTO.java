@@ -0,0 +1,20 @@
+package com.banking.backend.customer.dto;
+
+public record CustomerBatchResultDTO(int index, Status status, CustomerResponseDTO customer, String message) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE,
+        // Not written for a reason other than the request's data; the item may be retried
+        FAILED
+    }
+
+    public static CustomerBatchResultDTO created(int index, CustomerResponseDTO customer) {
+        return new CustomerBatchResultDTO(index, Status.CREATED, customer, null);
+    }
+
+    public static CustomerBatchResultDTO rejected(int index, Status status, String message) {
+        return new CustomerBatchResultDTO(index, status, null, message);
+    }
+}
@@ -0,0 +1,5 @@
+package com.banking.backend.customer.dto;
+
+// requested counts the distinct ids in the request
+public record CustomerBulkDeleteResultDTO(int requested, int deleted) {
+}
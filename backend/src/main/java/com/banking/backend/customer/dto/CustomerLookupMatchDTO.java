@@ -0,0 +1,5 @@
+package com.banking.backend.customer.dto;
+
+// score is the share of the query's trigrams found in the customer's name, email and address, from 0 to 1
+public record CustomerLookupMatchDTO(CustomerResponseDTO customer, double score) {
+}
@@ -0,0 +1,25 @@
+package com.banking.backend.customer.dto;
+
+import java.util.List;
+
+public class CustomerPageDTO {
+
+    private List<CustomerResponseDTO> items;
+    private String nextCursor;
+
+    public CustomerPageDTO() {
+    }
+
+    public CustomerPageDTO(List<CustomerResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CustomerResponseDTO> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,93 +1,10 @@
 package com.banking.backend.customer.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
 import java.util.UUID;
 
-public class CustomerResponseDTO {
-
-    private UUID id;
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String address;
-    private String phone;
-    private LocalDate dob;
-
-    public CustomerResponseDTO() {
-    }
-
-    public CustomerResponseDTO(String firstName, String lastName, String email, String address, String phone, LocalDate dob) {
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.address = address;
-        this.phone = phone;
-        this.dob = dob;
-    }
-
-    public CustomerResponseDTO(UUID id, String firstName, String lastName, String email, String address, String phone, LocalDate dob) {
-        this.id = id;
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.address = address;
-        this.phone = phone;
-        this.dob = dob;
-    }
-
-    public UUID getId() {
-        return id;
-    }
-
-    public void setId(UUID id) {
-        this.id = id;
-    }
-
-    public String getFirstName() {
-        return firstName;
-    }
-
-    public void setFirstName(String firstName) {
-        this.firstName = firstName;
-    }
-
-    public String getLastName() {
-        return lastName;
-    }
-
-    public void setLastName(String lastName) {
-        this.lastName = lastName;
-    }
-
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public String getAddress() {
-        return address;
-    }
-
-    public void setAddress(String address) {
-        this.address = address;
-    }
-
-    public String getPhone() {
-        return phone;
-    }
-
-    public void setPhone(String phone) {
-        this.phone = phone;
-    }
-
-    public LocalDate getDob() {
-        return dob;
-    }
-
-    public void setDob(LocalDate dob) {
-        this.dob = dob;
-    }
+// version travels in the ETag header rather than the body
+public record CustomerResponseDTO(UUID id, String firstName, String lastName, String email, String address, String phone, LocalDate dob,
+                                  @JsonIgnore long version) {
 }
@@ -0,0 +1,24 @@
+package com.banking.backend.customer.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDate;
+
+// Query-string filters for GET /api/v1/customers/search; null components are not applied
+public record CustomerSearchCriteria(
+        String lastNamePrefix,
+        String phone,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate dobFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate dobTo,
+        String emailDomain
+) {
+
+    public boolean isEmpty() {
+        return isBlank(lastNamePrefix) && isBlank(phone) && dobFrom == null && dobTo == null && isBlank(emailDomain);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,11 @@
+package com.banking.backend.customer.exception;
+
+public class CustomerVersionMismatchException extends RuntimeException {
+
+    public CustomerVersionMismatchException() {
+    }
+
+    public CustomerVersionMismatchException(String message) {
+        super(message);
+    }
+}
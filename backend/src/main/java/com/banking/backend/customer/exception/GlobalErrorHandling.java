@@ -1,6 +1,11 @@
 package com.banking.backend.customer.exception;
 
+import com.banking.backend.customer.model.Customer;
+import jakarta.validation.ConstraintViolation;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -27,6 +32,39 @@ public class GlobalErrorHandling {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    // If-Match named a version other than the current one
+    @ExceptionHandler(CustomerVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleCustomerVersionMismatchException(CustomerVersionMismatchException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(Instant.now(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Another write committed between this request's read and its UPDATE, and the client sent no If-Match
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(Instant.now(), "Customer was modified concurrently; retry with the latest version", request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    // Duplicate emails are caught by the database's unique constraint rather than a pre-check query
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request) {
+        if (isEmailUniqueViolation(ex)) {
+            return handleCustomerAlreadyExistsException(new CustomerAlreadyExistsException("Email already used by another customer"), request);
+        }
+        ErrorResponse error = new ErrorResponse(Instant.now(), "Data integrity violation", request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    private boolean isEmailUniqueViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return Customer.EMAIL_UNIQUE_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex, WebRequest request) {
         String errors = ex.getBindingResult().getFieldErrors().stream().map(DefaultMessageSourceResolvable::getDefaultMessage).collect(Collectors.joining(", "));
@@ -34,6 +72,14 @@ public class GlobalErrorHandling {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    // Same response as @Valid for bodies validated by hand, such as idempotent creates
+    @ExceptionHandler(jakarta.validation.ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolationException(jakarta.validation.ConstraintViolationException ex, WebRequest request) {
+        String errors = ex.getConstraintViolations().stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(", "));
+        ErrorResponse error = new ErrorResponse(Instant.now(), "Validation failed: " + errors, request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex, WebRequest request) {
         ErrorResponse error = new ErrorResponse(
@@ -0,0 +1,179 @@
+package com.banking.backend.customer.idempotency;
+
+import com.banking.backend.customer.datasource.ReadRouting;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.model.IdempotencyRecord;
+import com.banking.backend.customer.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Remembers the response to each create sent with an Idempotency-Key, so a client retrying after a timeout gets
+// the customer it already created instead of a 409 or a second row. The first request with a key runs; any
+// duplicate arriving while it is in flight waits on the same future and shares its outcome. Only successes are
+// kept: a failed create releases the key and the next retry runs afresh.
+//
+// Keys live in a bounded Caffeine map for the configured TTL. With customer.idempotency.persistent they are also
+// claimed in customer_idempotency_keys inside the create's own transaction, which extends replays across restarts
+// and instances. In memory alone, a key evicted early under size pressure only costs a second create, and the
+// email unique constraint still refuses that.
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_EVERY = 1000;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${customer.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${customer.idempotency.persistent:false}")
+    private boolean persistent;
+
+    private final Duration ttl;
+    private final Cache<String, Entry> entries;
+    private final AtomicLong claims = new AtomicLong();
+
+    public IdempotencyStore(@Value("${customer.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${customer.idempotency.ttl:24h}") Duration ttl) {
+        this.ttl = ttl;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<CustomerResponseDTO> response) {
+    }
+
+    // Runs create unless key was already used for this request, in which case the stored (or pending) response
+    // is returned. A null key means the client did not ask for idempotency.
+    public CustomerResponseDTO execute(String key, CustomerCreateDTO request, Supplier<CustomerResponseDTO> create) {
+        if (!enabled || key == null) {
+            return create.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String fingerprint = fingerprint(request);
+        Entry claimed = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, claimed);
+        if (existing != null) {
+            requireSameRequest(existing.fingerprint(), fingerprint);
+            return await(existing.response());
+        }
+
+        try {
+            CustomerResponseDTO response = persistent ? createRecorded(key, fingerprint, create) : create.get();
+            claimed.response().complete(response);
+            return response;
+        } catch (RuntimeException | Error ex) {
+            entries.asMap().remove(key, claimed);
+            claimed.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // The key row is claimed before the customer is inserted and completed after, all in one transaction, so a
+    // rollback releases the key and a concurrent claim from another instance waits for the outcome
+    private CustomerResponseDTO createRecorded(String key, String fingerprint, Supplier<CustomerResponseDTO> create) {
+        Instant now = Instant.now();
+        Instant expiredBefore = now.minus(ttl);
+        CustomerResponseDTO created = new TransactionTemplate(transactionManager).execute(status -> {
+            if (recordRepository.claim(key, fingerprint, now, expiredBefore) == 0) {
+                return null;
+            }
+            if (claims.incrementAndGet() % PURGE_EVERY == 0) {
+                recordRepository.deleteExpired(expiredBefore);
+            }
+            CustomerResponseDTO response = create.get();
+            recordRepository.complete(key, write(response));
+            return response;
+        });
+        if (created != null) {
+            return created;
+        }
+
+        // The conflicting claim committed on the primary; a lagging replica may not have the row yet
+        IdempotencyRecord record = ReadRouting.onPrimary(() -> recordRepository.findById(key))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, HEADER + " " + key + " is being reused; retry the request"));
+        requireSameRequest(record.getRequestFingerprint(), fingerprint);
+        return read(record.getResponse());
+    }
+
+    private static void requireSameRequest(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+        }
+    }
+
+    private static CustomerResponseDTO await(CompletableFuture<CustomerResponseDTO> response) {
+        try {
+            return response.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    String fingerprint(CustomerCreateDTO request) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint the request", ex);
+        }
+    }
+
+    private String write(CustomerResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store the response", ex);
+        }
+    }
+
+    // The version is not serialized, which is fine here: a customer is always at version 0 when first created
+    private CustomerResponseDTO read(String response) {
+        try {
+            return objectMapper.readValue(response, CustomerResponseDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read the stored response", ex);
+        }
+    }
+}
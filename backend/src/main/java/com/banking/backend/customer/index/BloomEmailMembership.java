@@ -0,0 +1,63 @@
+package com.banking.backend.customer.index;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+// Emails in use as a scalable Bloom filter: about 10 bits per email at a 1% false-positive rate, where the exact
+// map costs well over a hundred bytes. It cannot say who owns an email and cannot forget one, so deleted and
+// changed emails stay "maybe taken" until the next rebuild; both are counted to decide when that is due.
+final class BloomEmailMembership implements EmailMembership {
+
+    private final ScalableBloomFilter filter;
+    private final double rebuildAfterRemovedRatio;
+    private final LongAdder stale = new LongAdder();
+
+    BloomEmailMembership(long expectedEmails, double falsePositiveRate, double rebuildAfterRemovedRatio) {
+        this.filter = new ScalableBloomFilter(expectedEmails, falsePositiveRate);
+        this.rebuildAfterRemovedRatio = rebuildAfterRemovedRatio;
+    }
+
+    // Case and surrounding whitespace are folded, so the filter only ever errs towards "maybe taken"
+    static String normalize(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean mayBeTaken(String email, UUID self) {
+        return filter.mightContain(normalize(email));
+    }
+
+    @Override
+    public void put(UUID id, String email, String previousEmail) {
+        String normalized = normalize(email);
+        filter.add(normalized);
+        if (previousEmail != null && !normalize(previousEmail).equals(normalized)) {
+            stale.increment();
+        }
+    }
+
+    @Override
+    public void remove(UUID id) {
+        stale.increment();
+    }
+
+    @Override
+    public void load(UUID id, String email) {
+        filter.add(normalize(email));
+    }
+
+    @Override
+    public long size() {
+        return filter.count();
+    }
+
+    @Override
+    public boolean wantsRebuild() {
+        return stale.sum() > Math.max(1000, filter.count() * rebuildAfterRemovedRatio);
+    }
+
+    ScalableBloomFilter filter() {
+        return filter;
+    }
+}
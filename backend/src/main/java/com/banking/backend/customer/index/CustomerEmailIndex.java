@@ -0,0 +1,200 @@
+package com.banking.backend.customer.index;
+
+import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.shard.CustomerShards;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Emails in use, held in memory so the common "this email is free" answer needs no query. customer.email-index.type
+// picks an exact email -> owner map or, for tables too large for that, a scalable Bloom filter.
+//
+// The unique constraint stays the authority. A hit is confirmed against the database before a write is rejected,
+// and a miss only means the write goes ahead and lets the constraint decide. Changes are applied after commit.
+// Rows written around the service layer (SQL scripts, another instance) therefore never cause a wrong answer:
+// a deleted row leaves an entry that costs a confirming query, an inserted one a constraint violation.
+@Component
+public class CustomerEmailIndex {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerShards customerShards;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${customer.email-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${customer.email-index.type:exact}")
+    private String type;
+
+    @Value("${customer.email-index.bloom.expected-emails:1000000}")
+    private long bloomExpectedEmails;
+
+    @Value("${customer.email-index.bloom.false-positive-rate:0.01}")
+    private double bloomFalsePositiveRate;
+
+    @Value("${customer.email-index.bloom.rebuild-after-removed-ratio:0.2}")
+    private double bloomRebuildAfterRemovedRatio;
+
+    private volatile EmailMembership membership = new ExactEmailMembership();
+    // Receives writes alongside membership while a rebuild streams the table into it
+    private volatile EmailMembership rebuilding;
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        membership = newMembership();
+        Gauge.builder("customer.email.index.size", this, index -> index.membership.size())
+                .description("Emails held in the in-memory uniqueness index (approximate for the Bloom filter)")
+                .register(meterRegistry);
+        if (membership instanceof BloomEmailMembership) {
+            Gauge.builder("customer.email.bloom.memory", this, index -> bloom(index).sizeInBytes())
+                    .baseUnit("bytes")
+                    .description("Bits allocated across all Bloom filter stages")
+                    .register(meterRegistry);
+            Gauge.builder("customer.email.bloom.false.positive.rate", this, index -> bloom(index).estimatedFalsePositiveRate())
+                    .description("False-positive rate estimated from the bits currently set")
+                    .register(meterRegistry);
+            Gauge.builder("customer.email.bloom.stages", this, index -> bloom(index).stageCount())
+                    .description("Filters in the scalable Bloom filter chain")
+                    .register(meterRegistry);
+        }
+        rebuildRunning.set(true);
+        Thread.ofVirtual().name("customer-email-index-load").start(() -> {
+            try {
+                fill(membership);
+                ready = true;
+            } finally {
+                rebuildRunning.set(false);
+            }
+        });
+    }
+
+    // False only when no customer other than self is known to hold the email. Until the index has loaded every
+    // email may be taken, which sends callers to the database. A disabled index never claims an email is taken:
+    // writes go straight to the unique constraint.
+    public boolean mayBeTaken(String email, UUID self) {
+        if (!enabled) {
+            return false;
+        }
+        return !ready || membership.mayBeTaken(email, self);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(UUID id, String email) {
+        put(id, email, null);
+    }
+
+    // For an update: previousEmail is the one the customer held before it, which a Bloom filter keeps as stale
+    public void put(UUID id, String email, String previousEmail) {
+        if (enabled) {
+            afterCommit(() -> {
+                apply(target -> target.put(id, email, previousEmail));
+                rebuildIfStale();
+            });
+        }
+    }
+
+    public void remove(UUID id) {
+        if (enabled) {
+            afterCommit(() -> {
+                apply(target -> target.remove(id));
+                rebuildIfStale();
+            });
+        }
+    }
+
+    private void rebuildIfStale() {
+        if (ready && membership.wantsRebuild()) {
+            rebuild();
+        }
+    }
+
+    // Streams the table into a fresh membership while the current one keeps answering, then swaps them.
+    // Only the Bloom filter asks for this: it cannot forget deleted emails, so its hit rate drifts up over time.
+    private void rebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("customer-email-index-rebuild").start(() -> {
+            try {
+                EmailMembership fresh = newMembership();
+                rebuilding = fresh;
+                fill(fresh);
+                membership = fresh;
+            } finally {
+                rebuilding = null;
+                rebuildRunning.set(false);
+            }
+        });
+    }
+
+    private void apply(Consumer<EmailMembership> change) {
+        change.accept(membership);
+        EmailMembership next = rebuilding;
+        if (next != null) {
+            change.accept(next);
+        }
+    }
+
+    private void fill(EmailMembership target) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        customerShards.eachShard(() -> readOnly.executeWithoutResult(status -> {
+            try (Stream<CustomerRepository.EmailOwner> rows = customerRepository.streamEmailOwners()) {
+                rows.forEach(row -> target.load(row.getId(), row.getEmail()));
+            }
+        }));
+    }
+
+    private EmailMembership newMembership() {
+        return switch (type) {
+            case "exact" -> new ExactEmailMembership();
+            case "bloom" -> new BloomEmailMembership(bloomExpectedEmails, bloomFalsePositiveRate, bloomRebuildAfterRemovedRatio);
+            default -> throw new IllegalStateException("customer.email-index.type must be exact or bloom, not " + type);
+        };
+    }
+
+    private static ScalableBloomFilter bloom(CustomerEmailIndex index) {
+        return ((BloomEmailMembership) index.membership).filter();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
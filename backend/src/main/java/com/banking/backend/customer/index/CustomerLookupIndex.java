@@ -0,0 +1,172 @@
+package com.banking.backend.customer.index;
+
+import com.banking.backend.customer.dto.CustomerLookupMatchDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.shard.CustomerShards;
+import com.banking.backend.customer.service.CustomerMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Typo-tolerant customer lookup served entirely from memory. The index is filled once the application is ready by
+// streaming the Customers table on a background thread, then follows every customer write. Writes made inside a
+// transaction reach the index only after it commits, the same way the transaction-aware cache evicts.
+@Component
+public class CustomerLookupIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerLookupIndex.class);
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerShards customerShards;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${customer.lookup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${customer.lookup.min-score:0.3}")
+    private double minScore;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    // Ids written while the initial load is running; the load skips them so it never resurrects a deleted
+    // customer or overwrites a newer version with the row it read earlier. Kept across retries of a failed load,
+    // as a retry reads rows older than those writes again; null once a load has finished.
+    private Set<UUID> writtenDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("customer.lookup.index.size", index, TrigramIndex::size)
+                .description("Customers held in the in-memory lookup index")
+                .register(meterRegistry);
+        Thread.ofVirtual().name("customer-lookup-load").start(this::loadUntilDone);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<CustomerLookupMatchDTO> search(String query, int limit) {
+        return index.search(query, limit, minScore).stream()
+                .map(match -> new CustomerLookupMatchDTO(match.customer(), match.score()))
+                .toList();
+    }
+
+    public void put(CustomerResponseDTO customer) {
+        if (enabled) {
+            afterCommit(() -> apply(customer.id(), () -> index.put(customer)));
+        }
+    }
+
+    public void remove(UUID id) {
+        if (enabled) {
+            afterCommit(() -> apply(id, () -> index.remove(id)));
+        }
+    }
+
+    // A failed load keeps what it read so far and streams the table again after a growing pause; until one
+    // succeeds the index is not ready and /lookup answers 503
+    private void loadUntilDone() {
+        Duration delay = FIRST_RETRY_DELAY;
+        while (true) {
+            try {
+                loadAll();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Loading the customer lookup index failed, retrying in {}", delay, ex);
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                synchronized (this) {
+                    writtenDuringLoad = null;
+                }
+                return;
+            }
+            delay = Collections.min(List.of(delay.multipliedBy(2), MAX_RETRY_DELAY));
+        }
+    }
+
+    private void loadAll() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        customerShards.eachShard(() -> readOnly.executeWithoutResult(status -> {
+            try (Stream<Customer> customers = customerRepository.streamAll()) {
+                Iterator<Customer> iterator = customers.iterator();
+                while (iterator.hasNext()) {
+                    Customer customer = iterator.next();
+                    CustomerResponseDTO row = CustomerMapper.mapToResponseDTO(customer);
+                    entityManager.detach(customer);
+                    synchronized (this) {
+                        if (!writtenDuringLoad.contains(row.id())) {
+                            index.put(row);
+                        }
+                    }
+                }
+            }
+        }));
+        synchronized (this) {
+            writtenDuringLoad = null;
+        }
+        ready = true;
+    }
+
+    private synchronized void apply(UUID id, Runnable change) {
+        if (writtenDuringLoad != null) {
+            writtenDuringLoad.add(id);
+        }
+        change.run();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
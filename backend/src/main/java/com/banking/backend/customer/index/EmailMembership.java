@@ -0,0 +1,23 @@
+package com.banking.backend.customer.index;
+
+import java.util.UUID;
+
+// What CustomerEmailIndex knows about the emails in use. Implementations may answer "maybe" for a free email,
+// never "no" for one they were told about.
+interface EmailMembership {
+
+    boolean mayBeTaken(String email, UUID self);
+
+    // previousEmail is what the customer held before this write, null for a new customer
+    void put(UUID id, String email, String previousEmail);
+
+    void remove(UUID id);
+
+    // Rows streamed by the initial load or a rebuild; must not overwrite writes applied concurrently
+    void load(UUID id, String email);
+
+    long size();
+
+    // True once enough entries are known to be stale that a rebuild from the table would pay off
+    boolean wantsRebuild();
+}
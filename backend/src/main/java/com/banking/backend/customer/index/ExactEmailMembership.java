@@ -0,0 +1,55 @@
+package com.banking.backend.customer.index;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Every email with its owner. Lookups are plain ConcurrentHashMap reads and never block; writers only touch their
+// own keys, and releases are conditional on the owner so a late release cannot drop an email another customer
+// has since claimed.
+final class ExactEmailMembership implements EmailMembership {
+
+    private final Map<String, UUID> owners = new ConcurrentHashMap<>();
+    private final Map<UUID, String> emails = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean mayBeTaken(String email, UUID self) {
+        UUID owner = owners.get(email);
+        return owner != null && !owner.equals(self);
+    }
+
+    @Override
+    public void put(UUID id, String email, String previousEmail) {
+        // The map's own record of the previous email is used, being exactly what this membership released
+        String previous = emails.put(id, email);
+        if (previous != null && !previous.equals(email)) {
+            owners.remove(previous, id);
+        }
+        owners.put(email, id);
+    }
+
+    @Override
+    public void remove(UUID id) {
+        String previous = emails.remove(id);
+        if (previous != null) {
+            owners.remove(previous, id);
+        }
+    }
+
+    @Override
+    public void load(UUID id, String email) {
+        if (emails.putIfAbsent(id, email) == null) {
+            owners.putIfAbsent(email, id);
+        }
+    }
+
+    @Override
+    public long size() {
+        return owners.size();
+    }
+
+    @Override
+    public boolean wantsRebuild() {
+        return false;
+    }
+}
@@ -0,0 +1,149 @@
+package com.banking.backend.customer.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Scalable Bloom filter (Almeida et al.): a chain of plain Bloom filters where each new stage is twice the size of
+// the last and has half its false-positive rate, so the compound rate stays under the configured one however many
+// values are added. Bits are set with CAS, so adds and lookups never take a lock.
+final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        // p0 / (1 - r) is the bound on the compound rate across all stages
+        stages.add(new Stage(Math.max(1, initialCapacity), falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value, 0);
+        long h2 = hash(value, 0x9E3779B97F4A7C15L) | 1;
+        return mightContain(h1, h2);
+    }
+
+    // Returns false when the value was (probably) already present, so callers can count distinct additions
+    boolean add(String value) {
+        long h1 = hash(value, 0);
+        long h2 = hash(value, 0x9E3779B97F4A7C15L) | 1;
+        if (mightContain(h1, h2)) {
+            return false;
+        }
+        Stage last = stages.get(stages.size() - 1);
+        last.add(h1, h2);
+        if (last.count() >= last.capacity) {
+            grow(last);
+        }
+        return true;
+    }
+
+    long count() {
+        return stages.stream().mapToLong(Stage::count).sum();
+    }
+
+    int stageCount() {
+        return stages.size();
+    }
+
+    long sizeInBytes() {
+        return stages.stream().mapToLong(stage -> stage.words.length() * (long) Long.BYTES).sum();
+    }
+
+    // Estimated from the bits actually set, so it reflects the current fill rather than the configured target
+    double estimatedFalsePositiveRate() {
+        double allMiss = 1.0;
+        for (Stage stage : stages) {
+            allMiss *= 1 - Math.pow(stage.fillRatio(), stage.hashes);
+        }
+        return 1 - allMiss;
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void grow(Stage full) {
+        if (stages.get(stages.size() - 1) == full) {
+            stages.add(new Stage(full.capacity * GROWTH, full.falsePositiveRate * TIGHTENING));
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer so the low bits are usable directly
+    private static long hash(String value, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 27;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final LongAdder count = new LongAdder();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.words = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+            count.increment();
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return (double) set / bits;
+        }
+    }
+}
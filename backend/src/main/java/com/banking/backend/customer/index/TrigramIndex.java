@@ -0,0 +1,302 @@
+package com.banking.backend.customer.index;
+
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted trigram index over each customer's first name, last name, email and address. Words are padded the way
+// pg_trgm pads them ("  jon "), so word starts weigh in and short words still produce grams. A query ranks customers
+// by the share of its grams they contain, which survives typos and transpositions: "Jon Smtih" still shares
+// "  j", " jo", "  s" and " sm" with "John Smith".
+//
+// Every write takes a fresh slot and tombstones the old one; postings are append-only int arrays, so a search
+// is a handful of array scans. Once tombstones outnumber live customers the index is rebuilt from the live set.
+final class TrigramIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Query grams found in more than this share of the customers only score candidates, they do not produce them
+    private static final double COMMON_GRAM_SHARE = 0.05;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private CustomerResponseDTO[] customers = new CustomerResponseDTO[INITIAL_CAPACITY];
+    private int[] gramCounts = new int[INITIAL_CAPACITY];
+    private int nextSlot;
+
+    record Match(CustomerResponseDTO customer, double score) {
+    }
+
+    void put(CustomerResponseDTO customer) {
+        long[] grams = grams(document(customer));
+        lock.writeLock().lock();
+        try {
+            tombstone(customer.id());
+            add(customer, grams);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            tombstone(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Customers sharing at least minScore of the query's grams, best first. Ties go to the customer whose own
+    // text is closest in size to the query, so "Jon Smith" outranks a long address that happens to contain both words.
+    List<Match> search(String query, int limit, double minScore) {
+        long[] queryGrams = grams(query);
+        if (queryGrams.length == 0 || limit < 1) {
+            return List.of();
+        }
+
+        Comparator<int[]> rank = Comparator.<int[]>comparingInt(c -> c[1])
+                .thenComparingInt(c -> -c[2]);
+        PriorityQueue<int[]> top = new PriorityQueue<>(limit + 1, rank);
+        List<Match> matches = new ArrayList<>(limit);
+
+        lock.readLock().lock();
+        try {
+            // Grams such as "com" or "  s" sit in a large share of all postings; walking them would visit nearly every
+            // slot. Candidates come from the selective grams only, and the common ones are then looked up per
+            // candidate by binary search, postings being in slot order. A query made only of common grams is
+            // driven by its rarest one.
+            List<Postings> selective = new ArrayList<>(queryGrams.length);
+            List<Postings> common = new ArrayList<>();
+            int commonAbove = Math.max(INITIAL_CAPACITY, (int) (slots.size() * COMMON_GRAM_SHARE));
+            for (long gram : queryGrams) {
+                Postings posting = postings.get(gram);
+                if (posting != null) {
+                    (posting.size > commonAbove ? common : selective).add(posting);
+                }
+            }
+            if (selective.isEmpty() && !common.isEmpty()) {
+                Postings rarest = common.stream().min(Comparator.comparingInt(posting -> posting.size)).get();
+                common.remove(rarest);
+                selective.add(rarest);
+            }
+
+            SlotCounter shared = new SlotCounter();
+            for (Postings posting : selective) {
+                for (int i = 0; i < posting.size; i++) {
+                    int slot = posting.slots[i];
+                    if (customers[slot] != null) {
+                        shared.increment(slot);
+                    }
+                }
+            }
+            if (!common.isEmpty()) {
+                shared.forEach((slot, count) -> {
+                    for (Postings posting : common) {
+                        if (posting.contains(slot)) {
+                            shared.increment(slot);
+                        }
+                    }
+                });
+            }
+
+            // The epsilon keeps 0.3 * 10 from rounding up to 4
+            int minShared = Math.max(1, (int) Math.ceil(minScore * queryGrams.length - 1e-9));
+            shared.forEach((slot, count) -> {
+                if (count < minShared) {
+                    return;
+                }
+                // {slot, shared grams, grams the customer has that the query does not}
+                top.add(new int[] {slot, count, gramCounts[slot] - count});
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+
+            while (!top.isEmpty()) {
+                int[] candidate = top.poll();
+                matches.add(new Match(customers[candidate[0]], (double) candidate[1] / queryGrams.length));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.reversed();
+    }
+
+    private void tombstone(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot != null) {
+            customers[slot] = null;
+        }
+    }
+
+    private void add(CustomerResponseDTO customer, long[] grams) {
+        int slot = nextSlot++;
+        if (slot == customers.length) {
+            customers = Arrays.copyOf(customers, slot * 2);
+            gramCounts = Arrays.copyOf(gramCounts, slot * 2);
+        }
+        customers[slot] = customer;
+        gramCounts[slot] = grams.length;
+        slots.put(customer.id(), slot);
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+        }
+    }
+
+    private void compactIfSparse() {
+        int dead = nextSlot - slots.size();
+        if (dead < INITIAL_CAPACITY || dead < slots.size()) {
+            return;
+        }
+        CustomerResponseDTO[] live = new CustomerResponseDTO[slots.size()];
+        int count = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (customers[slot] != null) {
+                live[count++] = customers[slot];
+            }
+        }
+        postings.clear();
+        slots.clear();
+        customers = new CustomerResponseDTO[Math.max(INITIAL_CAPACITY, Integer.highestOneBit(count) * 2)];
+        gramCounts = new int[customers.length];
+        nextSlot = 0;
+        for (CustomerResponseDTO customer : live) {
+            add(customer, grams(document(customer)));
+        }
+    }
+
+    private static String document(CustomerResponseDTO customer) {
+        return customer.firstName() + ' ' + customer.lastName() + ' ' + customer.email() + ' ' + customer.address();
+    }
+
+    // Distinct trigrams of the lower-cased, accent-stripped words in text, each packed into a long as three UTF-16 units
+    static long[] grams(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        long[] grams = new long[16];
+        int count = 0;
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                if (count == grams.length) {
+                    grams = Arrays.copyOf(grams, count * 2);
+                }
+                grams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams, 0, count).sorted().distinct().toArray();
+    }
+
+    // Slots containing one trigram, in ascending slot order; tombstoned slots are skipped at read time
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+
+    // Open-addressing slot -> shared-gram count map, so scoring a query does not box an Integer per candidate
+    private static final class SlotCounter {
+
+        private int[] keys = newKeys(64);
+        private int[] counts = new int[64];
+        private int size;
+
+        void increment(int slot) {
+            int mask = keys.length - 1;
+            int i = mix(slot) & mask;
+            while (keys[i] != -1 && keys[i] != slot) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == -1) {
+                keys[i] = slot;
+                if (++size * 2 > keys.length) {
+                    counts[i] = 1;
+                    grow();
+                    return;
+                }
+            }
+            counts[i]++;
+        }
+
+        void forEach(SlotConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != -1) {
+                    consumer.accept(keys[i], counts[i]);
+                }
+            }
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = newKeys(oldKeys.length * 2);
+            counts = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != -1) {
+                    int i = mix(oldKeys[j]) & mask;
+                    while (keys[i] != -1) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    counts[i] = oldCounts[j];
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, -1);
+            return keys;
+        }
+
+        private static int mix(int slot) {
+            return slot * 0x9E3779B9;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotConsumer {
+        void accept(int slot, int count);
+    }
+}
@@ -0,0 +1,21 @@
+package com.banking.backend.customer.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+final class PersistenceMeters {
+
+    private PersistenceMeters() {
+    }
+
+    static void record(MeterRegistry registry, String prefix, Tags tags, PersistenceStats stats) {
+        record(registry, prefix + ".jdbc.statements", "JDBC statements prepared", tags, stats.getStatements());
+        record(registry, prefix + ".flushes", "Hibernate flushes", tags, stats.getFlushes());
+        record(registry, prefix + ".entity.loads", "Entities hydrated", tags, stats.getEntityLoads());
+    }
+
+    private static void record(MeterRegistry registry, String name, String description, Tags tags, int value) {
+        DistributionSummary.builder(name).description(description).tags(tags).register(registry).record(value);
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.backend.customer.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class PersistenceMetricsConfig implements WebMvcConfigurer {
+
+    private final PersistenceMetricsInterceptor interceptor;
+
+    public PersistenceMetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.interceptor = new PersistenceMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer persistenceStatsHibernateHooks() {
+        PersistenceStatsHibernateHooks hooks = new PersistenceStatsHibernateHooks();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, hooks);
+            properties.put(AvailableSettings.INTERCEPTOR, hooks);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+    }
+
+    // Runs around the work of async handlers on the executor thread
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(interceptor);
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.backend.customer.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import java.util.concurrent.Callable;
+
+// Publishes each request's JDBC statement, flush and entity-load counts as distribution summaries tagged by route.
+// Async handlers (the NDJSON export) do their work on an executor thread and complete in a second dispatch; the
+// request's scope follows it to both, so the recorded counts include the statements streamed from there.
+class PersistenceMetricsInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final String STATS_ATTRIBUTE = PersistenceMetricsInterceptor.class.getName() + ".stats";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    PersistenceMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(STATS_ATTRIBUTE) instanceof PersistenceStats stats) {
+            stats.resume();
+        } else {
+            request.setAttribute(STATS_ATTRIBUTE, PersistenceStats.open());
+        }
+        return true;
+    }
+
+    // The request thread is handed back to the container; the stats wait on the request for the async dispatch
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STATS_ATTRIBUTE) instanceof PersistenceStats stats) {
+            stats.close();
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof PersistenceStats stats) {
+            stats.resume();
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        if (request.getAttribute(STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof PersistenceStats stats) {
+            stats.close();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(STATS_ATTRIBUTE) instanceof PersistenceStats stats)) {
+            return;
+        }
+        stats.close();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+        PersistenceMeters.record(registry, "customer.request", tags, stats);
+    }
+}
@@ -0,0 +1,92 @@
+package com.banking.backend.customer.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// JDBC statements, flushes and entity loads issued on the current thread while a scope is open. Scopes nest:
+// an HTTP request opens one and each @Transactional service call inside it opens another, and every open scope
+// on the thread counts the same statement. Request handling runs on one thread per request, so the thread is
+// the request, except for async requests, whose scope is resumed on each thread they continue on.
+public final class PersistenceStats implements AutoCloseable {
+
+    private static final ThreadLocal<PersistenceStats> CURRENT = new ThreadLocal<>();
+
+    private final PersistenceStats parent;
+    private final List<String> sql;
+    private int statements;
+    private int flushes;
+    private int entityLoads;
+
+    private PersistenceStats(PersistenceStats parent, boolean captureSql) {
+        this.parent = parent;
+        this.sql = captureSql ? new ArrayList<>() : null;
+    }
+
+    public static PersistenceStats open() {
+        return open(false);
+    }
+
+    // Capturing keeps every statement's SQL text; meant for tests looking for N+1 patterns, not production scopes
+    public static PersistenceStats open(boolean captureSql) {
+        PersistenceStats stats = new PersistenceStats(CURRENT.get(), captureSql);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Makes a closed top-level scope current again on this thread, e.g. the worker an async request continues on.
+    // Close it on this thread as usual once that thread is done with the request.
+    public void resume() {
+        CURRENT.set(this);
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    static void statementPrepared(String statement) {
+        for (PersistenceStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statements++;
+            if (stats.sql != null) {
+                stats.sql.add(statement);
+            }
+        }
+    }
+
+    static void flushed() {
+        for (PersistenceStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.flushes++;
+        }
+    }
+
+    static void entityLoaded() {
+        for (PersistenceStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.entityLoads++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    // Empty unless the scope was opened with captureSql
+    public List<String> getSql() {
+        return sql == null ? List.of() : Collections.unmodifiableList(sql);
+    }
+}
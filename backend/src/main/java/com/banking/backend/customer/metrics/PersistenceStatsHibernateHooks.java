@@ -0,0 +1,27 @@
+package com.banking.backend.customer.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import java.util.Iterator;
+
+// Registered session-factory wide; only counts while a PersistenceStats scope is open on the calling thread.
+class PersistenceStatsHibernateHooks implements StatementInspector, Interceptor {
+
+    @Override
+    public String inspect(String sql) {
+        PersistenceStats.statementPrepared(sql);
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        PersistenceStats.entityLoaded();
+        return false;
+    }
+
+    @Override
+    public void preFlush(Iterator<Object> entities) {
+        PersistenceStats.flushed();
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.backend.customer.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Counts statements per @Transactional customer service call as customer.transaction.* summaries. Ordered
+// inside the cache advice (cache hits issue nothing) and outside the transaction advice, so the flush at
+// commit is counted against the method that caused it.
+@Aspect
+@Component
+@Order(0)
+public class TransactionalStatementsAspect {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public TransactionalStatementsAspect(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(org.springframework.transaction.annotation.Transactional) && within(com.banking.backend.customer.service..*)")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        PersistenceStats stats = PersistenceStats.open();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            stats.close();
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                Tags tags = Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                        "method", joinPoint.getSignature().getName());
+                PersistenceMeters.record(registry, "customer.transaction", tags, stats);
+            }
+        }
+    }
+}
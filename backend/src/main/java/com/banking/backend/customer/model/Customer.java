@@ -4,27 +4,46 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
+// The table is created by the Flyway migrations in db/migration and Hibernate only validates against it;
+// the index names below mirror V3__partition_customers_by_id.sql. The table is hash-partitioned on id, so email
+// uniqueness lives in the customer_emails lookup table (CustomerEmail).
 @Entity
-@Table(name = "Customers")
+@Table(
+        name = "Customers",
+        indexes = {
+                @Index(name = "idx_customers_created_at_id", columnList = "createdAt, id"),
+                @Index(name = "idx_customers_phone", columnList = "phone"),
+                @Index(name = "idx_customers_dob", columnList = "dob")
+        }
+)
+// UPDATEs set only the dirty columns plus updatedAt; CustomerPatchBenchmark measures the WAL saved
+@DynamicUpdate
 public class Customer {
 
+    // Primary key of customer_emails; referenced by the error handler to recognise duplicate-email writes
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_customers_email";
+
+    // Time-ordered v7 ids, so new rows append to the primary-key index rather than landing at random in it
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(nullable = false)
     private String firstName;
     @Column(nullable = false)
     private String lastName;
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     @Column(nullable = false)
     private String address;
@@ -38,6 +57,12 @@ public class Customer {
     @UpdateTimestamp
     @Column(nullable = false)
     private Instant updatedAt;
+    // Optimistic lock: every UPDATE is conditional on the version it read. Exposed to clients as the ETag.
+    // The default lets the column be added to a populated table.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 
     public Customer() {
     }
@@ -121,6 +146,10 @@ public class Customer {
         return updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
 }
 
 //package com.banking.backend.customer.model;
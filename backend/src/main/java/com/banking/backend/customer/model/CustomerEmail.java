@@ -0,0 +1,39 @@
+package com.banking.backend.customer.model;
+
+import java.util.UUID;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+// Global email -> customer lookup for the hash-partitioned customers table, which cannot hold a unique index on
+// email itself. Rows are kept in step by the triggers in V3__partition_customers_by_id.sql, and its primary key
+// is the constraint a duplicate email violates. Mapped read-only for CustomerRepository's email queries, which
+// would otherwise probe an email index in every partition.
+@Entity
+@Immutable
+@Table(
+        name = "customer_emails",
+        indexes = @Index(name = "idx_customer_emails_customer_id", columnList = "customerId")
+)
+public class CustomerEmail {
+
+    @Id
+    @Column(length = 255)
+    private String email;
+    @Column(nullable = false)
+    private UUID customerId;
+
+    protected CustomerEmail() {
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+}
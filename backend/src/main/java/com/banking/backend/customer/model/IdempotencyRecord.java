@@ -0,0 +1,56 @@
+package com.banking.backend.customer.model;
+
+import java.time.Instant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Durable side of IdempotencyStore: the response a create returned for an Idempotency-Key. Rows are inserted and
+// completed through IdempotencyRecordRepository's native statements; the entity only maps them for reads.
+@Entity
+@Table(
+        name = "customer_idempotency_keys",
+        indexes = @Index(name = "idx_customer_idempotency_keys_created_at", columnList = "createdAt")
+)
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+    // SHA-256 of the request body, so a key reused for a different customer is refused rather than replayed
+    @Column(nullable = false, length = 64)
+    private String requestFingerprint;
+    // CustomerResponseDTO as JSON; written in the same transaction as the customer row
+    @Column(columnDefinition = "text")
+    private String response;
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String requestFingerprint, String response, Instant createdAt) {
+        this.key = key;
+        this.requestFingerprint = requestFingerprint;
+        this.response = response;
+        this.createdAt = createdAt;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
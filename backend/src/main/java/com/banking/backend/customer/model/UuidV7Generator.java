@@ -0,0 +1,35 @@
+package com.banking.backend.customer.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp, then 12 bits used as a counter within the
+// millisecond, then 62 random bits. Ids generated later sort later, so inserts land on the right-hand edge of the
+// primary-key btree instead of splitting pages all over it; CustomerIdBenchmark compares both strategies.
+// The random tail keeps ids as hard to guess as v4, and the values are ordinary UUIDs everywhere else.
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Last (millis << 12 | counter) handed out, so ids stay strictly increasing even if the clock steps back
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        // The counter overflowing into the timestamp borrows the next millisecond, which keeps the order
+        long millis = stamp >>> 12;
+        long counter = stamp & 0xFFF;
+
+        long mostSigBits = (millis << 16) | 0x7000L | counter;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
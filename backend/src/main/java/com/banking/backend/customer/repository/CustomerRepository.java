@@ -1,12 +1,78 @@
 package com.banking.backend.customer.repository;
 
+import com.banking.backend.customer.dto.CustomerResponseDTO;
 import com.banking.backend.customer.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, UUID> {
-    boolean existsByEmail(String email);
+public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSpecificationExecutor<Customer> {
+    // Email checks go through the customer_emails lookup table: one primary-key probe instead of one per partition
+    @Query("select count(e) > 0 from CustomerEmail e where e.email = :email")
+    boolean existsByEmail(@Param("email") String email);
+
+    @Query("select count(e) > 0 from CustomerEmail e where e.email = :email and e.customerId <> :id")
+    boolean existsByEmailAndIdNot(@Param("email") String email, @Param("id") UUID id);
+
+    @Query("select e.email from CustomerEmail e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Read paths select straight into the response DTO: no managed entity, snapshot or persistence-context entry
+    @Query("select new com.banking.backend.customer.dto.CustomerResponseDTO(c.id, c.firstName, c.lastName, c.email, c.address, c.phone, c.dob, c.version) "
+            + "from Customer c where c.id = :id")
+    Optional<CustomerResponseDTO> findResponseById(@Param("id") UUID id);
+
+    @Query("select new com.banking.backend.customer.dto.CustomerResponseDTO(c.id, c.firstName, c.lastName, c.email, c.address, c.phone, c.dob, c.version) "
+            + "from Customer c")
+    List<CustomerResponseDTO> findAllResponses();
+
+    // Single DELETE without loading the entity first; the row count tells the caller whether the customer existed
+    @Modifying
+    @Query("delete from Customer c where c.id = :id")
+    int removeById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("delete from Customer c where c.id in :ids")
+    int removeAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select c from Customer c order by c.createdAt, c.id")
+    List<Customer> findFirstPage(Pageable pageable);
+
+    @Query("select c from Customer c where c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id) order by c.createdAt, c.id")
+    List<Customer> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Must be consumed inside a transaction; the fetch size keeps the PostgreSQL driver from buffering the whole result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Customer c order by c.createdAt, c.id")
+    Stream<Customer> streamAll();
+
+    // Warms CustomerEmailIndex; same transaction and fetch-size rules as streamAll
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select e.customerId as id, e.email as email from CustomerEmail e")
+    Stream<EmailOwner> streamEmailOwners();
+
+    interface EmailOwner {
+        UUID getId();
+
+        String getEmail();
+    }
 }
@@ -0,0 +1,59 @@
+package com.banking.backend.customer.repository;
+
+import com.banking.backend.customer.dto.CustomerSearchCriteria;
+import com.banking.backend.customer.model.Customer;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// Each predicate is written to match an index from db/migration (V3__partition_customers_by_id.sql): the lower(...)
+// expressions line up with the trigram indexes, phone and dob with their btree indexes.
+public final class CustomerSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private CustomerSpecifications() {
+    }
+
+    public static Specification<Customer> matching(CustomerSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(criteria.lastNamePrefix())) {
+                predicates.add(cb.like(cb.lower(root.get("lastName")), escapeLike(criteria.lastNamePrefix().trim().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+            }
+            if (hasText(criteria.phone())) {
+                predicates.add(cb.equal(root.get("phone"), criteria.phone().trim()));
+            }
+            if (criteria.dobFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dob"), criteria.dobFrom()));
+            }
+            if (criteria.dobTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dob"), criteria.dobTo()));
+            }
+            if (hasText(criteria.emailDomain())) {
+                String domain = criteria.emailDomain().trim().toLowerCase(Locale.ROOT);
+                predicates.add(cb.like(cb.lower(root.get("email")), "%@" + escapeLike(domain.startsWith("@") ? domain.substring(1) : domain), LIKE_ESCAPE));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Keyset continuation on (createdAt, id), the same ordering as findPageAfter
+    public static Specification<Customer> after(Instant createdAt, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.greaterThan(root.get("id"), id)));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,32 @@
+package com.banking.backend.customer.repository;
+
+import com.banking.backend.customer.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Returns 1 when this transaction now owns the key: it was free, or its row had expired and is taken over.
+    // A live row returns 0. If that row's transaction is still open, PostgreSQL blocks the insert until it ends,
+    // so 0 always means a committed response is there to replay.
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into customer_idempotency_keys (idempotency_key, request_fingerprint, created_at) "
+            + "values (:key, :fingerprint, :now) "
+            + "on conflict (idempotency_key) do update set request_fingerprint = excluded.request_fingerprint, response = null, created_at = excluded.created_at "
+            + "where customer_idempotency_keys.created_at < :expiredBefore")
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("now") Instant now, @Param("expiredBefore") Instant expiredBefore);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.key = :key")
+    int complete(@Param("key") String key, @Param("response") String response);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") Instant expiredBefore);
+}
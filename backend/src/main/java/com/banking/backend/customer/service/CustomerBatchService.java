@@ -0,0 +1,275 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.config.CustomerCacheConfig;
+import com.banking.backend.customer.datasource.ReadRouting;
+import com.banking.backend.customer.datasource.ReadYourWrites;
+import com.banking.backend.customer.dto.CustomerBatchResultDTO;
+import com.banking.backend.customer.dto.CustomerBulkDeleteResultDTO;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.index.CustomerEmailIndex;
+import com.banking.backend.customer.index.CustomerLookupIndex;
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.model.UuidV7Generator;
+import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.shard.CustomerShards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class CustomerBatchService {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CustomerLookupIndex lookupIndex;
+
+    @Autowired
+    private CustomerEmailIndex emailIndex;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private CustomerShards customerShards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${customer.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    // Matches hibernate.jdbc.batch_size so every flush sends full JDBC batches
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int flushEvery;
+
+    // Each chunk commits in its own transaction, so a failing chunk costs only its own rows; the response reports
+    // every item either way
+    public List<CustomerBatchResultDTO> createCustomers(List<CustomerCreateDTO> customerDTOs) {
+        if (customerDTOs.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch exceeds the maximum of " + maxBatchSize + " customers");
+        }
+
+        CustomerBatchResultDTO[] results = new CustomerBatchResultDTO[customerDTOs.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int i = 0; i < customerDTOs.size(); i++) {
+            CustomerCreateDTO customerDTO = customerDTOs.get(i);
+            String validationErrors = validate(customerDTO);
+            if (validationErrors != null) {
+                results[i] = CustomerBatchResultDTO.rejected(i, CustomerBatchResultDTO.Status.INVALID, "Validation failed: " + validationErrors);
+            } else if (!batchEmails.add(customerDTO.email())) {
+                results[i] = CustomerBatchResultDTO.rejected(i, CustomerBatchResultDTO.Status.DUPLICATE, "Email " + customerDTO.email() + " appears more than once in the batch.");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // Only emails the index cannot rule out are checked against the table; a fresh partner file usually needs no query
+        Set<String> probableEmails = new HashSet<>();
+        for (String email : batchEmails) {
+            if (emailIndex.mayBeTaken(email, null)) {
+                probableEmails.add(email);
+            }
+        }
+        // Read from the primary: a lagging replica would let known duplicates through to the slower row-by-row retry
+        Set<String> existingEmails = probableEmails.isEmpty() ? Set.of()
+                : customerShards.enabled() ? customerShards.takenEmails(probableEmails) : ReadRouting.onPrimary(() -> customerRepository.findExistingEmails(probableEmails));
+
+        if (customerShards.enabled()) {
+            createSharded(customerDTOs, candidates, existingEmails, results);
+            return Arrays.asList(results);
+        }
+
+        List<Integer> chunk = new ArrayList<>(flushEvery);
+        for (int i : candidates) {
+            CustomerCreateDTO customerDTO = customerDTOs.get(i);
+            if (existingEmails.contains(customerDTO.email())) {
+                results[i] = CustomerBatchResultDTO.rejected(i, CustomerBatchResultDTO.Status.DUPLICATE, "Customer with email " + customerDTO.email() + " already exists.");
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == flushEvery) {
+                createChunk(customerDTOs, chunk, results);
+            }
+        }
+        createChunk(customerDTOs, chunk, results);
+
+        return Arrays.asList(results);
+    }
+
+    // One set-based DELETE for the whole list; ids that matched nothing are simply not counted
+    @Transactional
+    public CustomerBulkDeleteResultDTO deleteCustomers(List<UUID> ids) {
+        if (ids.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch exceeds the maximum of " + maxBatchSize + " customers");
+        }
+        Set<UUID> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return new CustomerBulkDeleteResultDTO(0, 0);
+        }
+
+        int deleted = customerShards.byShard(distinctIds, customerRepository::removeAllByIdIn).stream().mapToInt(Integer::intValue).sum();
+        customerShards.removed(distinctIds);
+        // The cache manager and lookup index are transaction-aware, so these run after commit
+        Cache customers = Objects.requireNonNull(cacheManager.getCache(CustomerCacheConfig.CUSTOMERS_CACHE));
+        distinctIds.forEach(customers::evict);
+        distinctIds.forEach(lookupIndex::remove);
+        distinctIds.forEach(emailIndex::remove);
+        distinctIds.forEach(readYourWrites::written);
+        return new CustomerBulkDeleteResultDTO(distinctIds.size(), deleted);
+    }
+
+    // Ids are assigned up front so each customer's shard is known, and every shard gets one JDBC batch of its
+    // customers in its own transaction. Customers on a shard whose batch failed are reported FAILED; the rest are
+    // committed, indexed and reported as usual.
+    private void createSharded(List<CustomerCreateDTO> customerDTOs, List<Integer> candidates, Set<String> existingEmails, CustomerBatchResultDTO[] results) {
+        List<Integer> indexes = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        for (int i : candidates) {
+            CustomerCreateDTO customerDTO = customerDTOs.get(i);
+            if (existingEmails.contains(customerDTO.email())) {
+                results[i] = CustomerBatchResultDTO.rejected(i, CustomerBatchResultDTO.Status.DUPLICATE, "Customer with email " + customerDTO.email() + " already exists.");
+                continue;
+            }
+            indexes.add(i);
+            customers.add(new Customer(UuidV7Generator.next(), customerDTO.firstName(), customerDTO.lastName(), customerDTO.email(),
+                    customerDTO.address(), customerDTO.phone(), customerDTO.dob()));
+        }
+        if (customers.isEmpty()) {
+            return;
+        }
+
+        CustomerShards.Inserted inserted = customerShards.insertAll(customers);
+        for (int j = 0; j < customers.size(); j++) {
+            int index = indexes.get(j);
+            Customer customer = customers.get(j);
+            if (inserted.refused().contains(customer.getId())) {
+                results[index] = CustomerBatchResultDTO.rejected(index, CustomerBatchResultDTO.Status.DUPLICATE, "Customer with email " + customer.getEmail() + " already exists.");
+                continue;
+            }
+            if (inserted.failed().contains(customer.getId())) {
+                results[index] = CustomerBatchResultDTO.rejected(index, CustomerBatchResultDTO.Status.FAILED, "Customer could not be created.");
+                continue;
+            }
+            CustomerResponseDTO created = CustomerMapper.mapToResponseDTO(customer);
+            lookupIndex.put(created);
+            emailIndex.put(created.id(), created.email());
+            readYourWrites.written(created.id());
+            results[index] = CustomerBatchResultDTO.created(index, created);
+        }
+    }
+
+    private String validate(CustomerCreateDTO customerDTO) {
+        if (customerDTO == null) {
+            return "Customer is required.";
+        }
+        Set<ConstraintViolation<CustomerCreateDTO>> violations = validator.validate(customerDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    // Sends the chunk as one JDBC batch. Another request can insert one of its emails after the existence check; the
+    // unique constraint then rolls the chunk back, and its rows are retried one at a time so only the clashing ones
+    // are reported as duplicates.
+    private void createChunk(List<CustomerCreateDTO> customerDTOs, List<Integer> chunk, CustomerBatchResultDTO[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<CustomerResponseDTO> created = insert(chunk.stream().map(customerDTOs::get).toList());
+            for (int j = 0; j < chunk.size(); j++) {
+                results[chunk.get(j)] = CustomerBatchResultDTO.created(chunk.get(j), created.get(j));
+            }
+        } catch (RuntimeException ex) {
+            for (int index : chunk) {
+                CustomerCreateDTO customerDTO = customerDTOs.get(index);
+                try {
+                    results[index] = CustomerBatchResultDTO.created(index, insert(List.of(customerDTO)).get(0));
+                } catch (RuntimeException rowEx) {
+                    results[index] = isEmailViolation(rowEx)
+                            ? CustomerBatchResultDTO.rejected(index, CustomerBatchResultDTO.Status.DUPLICATE, "Customer with email " + customerDTO.email() + " already exists.")
+                            : CustomerBatchResultDTO.rejected(index, CustomerBatchResultDTO.Status.FAILED, "Customer could not be created.");
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    // Entities are mapped afresh on every attempt: one persisted by a rolled-back transaction keeps its id and
+    // would be refused as detached
+    private List<CustomerResponseDTO> insert(List<CustomerCreateDTO> customerDTOs) {
+        return transaction().execute(status -> {
+            List<Customer> customers = new ArrayList<>(customerDTOs.size());
+            for (CustomerCreateDTO customerDTO : customerDTOs) {
+                Customer customer = CustomerMapper.mapToEntity(customerDTO);
+                entityManager.persist(customer);
+                customers.add(customer);
+            }
+            entityManager.flush();
+            List<CustomerResponseDTO> created = new ArrayList<>(customers.size());
+            for (Customer customer : customers) {
+                CustomerResponseDTO dto = CustomerMapper.mapToResponseDTO(customer);
+                // Both indexes apply these after commit, so a rolled-back chunk leaves them untouched
+                lookupIndex.put(dto);
+                emailIndex.put(dto.id(), dto.email());
+                readYourWrites.written(dto.id());
+                created.add(dto);
+            }
+            entityManager.clear();
+            return created;
+        });
+    }
+
+    private TransactionTemplate transaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static boolean isEmailViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return Customer.EMAIL_UNIQUE_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.shard.CustomerShards;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class CustomerExportService {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerShards customerShards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${customer.export.flush-every:500}")
+    private int flushEvery;
+
+    // Writes every customer as one JSON object per line. Rows are pulled through a server-side cursor and
+    // detached once written, so memory stays flat regardless of table size. Shards are exported one after another.
+    @Transactional(readOnly = true)
+    public long exportCustomers(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long[] written = {0};
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Lines are ended by hand; the generator would otherwise also put its default " " between root values
+            generator.setRootValueSeparator(null);
+            try {
+                customerShards.eachShard(() -> written[0] = writeAll(writer, generator, written[0]));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            generator.flush();
+        }
+        return written[0];
+    }
+
+    private long writeAll(ObjectWriter writer, JsonGenerator generator, long written) {
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                Customer customer = iterator.next();
+                writer.writeValue(generator, CustomerMapper.mapToResponseDTO(customer));
+                generator.writeRaw('\n');
+                entityManager.detach(customer);
+
+                if (++written % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+            return written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.model.Customer;
+
+public final class CustomerMapper {
+
+    private CustomerMapper() {
+    }
+
+    public static Customer mapToEntity(CustomerCreateDTO customerDTO) {
+        return new Customer(
+                customerDTO.firstName(),
+                customerDTO.lastName(),
+                customerDTO.email(),
+                customerDTO.address(),
+                customerDTO.phone(),
+                customerDTO.dob()
+        );
+    }
+
+    public static CustomerResponseDTO mapToResponseDTO(Customer customer) {
+        return new CustomerResponseDTO(
+                customer.getId(),
+                customer.getFirstName(),
+                customer.getLastName(),
+                customer.getEmail(),
+                customer.getAddress(),
+                customer.getPhone(),
+                customer.getDob(),
+                customer.getVersion()
+        );
+    }
+}
@@ -1,123 +1,298 @@
 package com.banking.backend.customer.service;
 
+import com.banking.backend.customer.config.CustomerCacheConfig;
+import com.banking.backend.customer.datasource.ReadYourWrites;
 import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerLookupMatchDTO;
+import com.banking.backend.customer.dto.CustomerPageDTO;
 import com.banking.backend.customer.dto.CustomerPatchDTO;
 import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.dto.CustomerSearchCriteria;
 import com.banking.backend.customer.dto.CustomerUpdateDTO;
 import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import com.banking.backend.customer.exception.CustomerVersionMismatchException;
 import com.banking.backend.customer.exception.NoSuchCustomerExistsException;
+import com.banking.backend.customer.index.CustomerEmailIndex;
+import com.banking.backend.customer.index.CustomerLookupIndex;
 import com.banking.backend.customer.model.Customer;
 import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.repository.CustomerSpecifications;
+import com.banking.backend.customer.shard.CustomerShards;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+@Timed(value = "customer.service", histogram = true)
 @Service
 public class CustomerService {
 
     @Autowired
     private CustomerRepository customerRepository;
 
-    // Utility mappers
-    private Customer mapToEntity(CustomerCreateDTO customerDTO) {
-        return new Customer(
-                customerDTO.getFirstName(),
-                customerDTO.getLastName(),
-                customerDTO.getEmail(),
-                customerDTO.getAddress(),
-                customerDTO.getPhone(),
-                customerDTO.getDob()
-        );
-    }
-
-    private CustomerResponseDTO mapToResponseDTO(Customer customer) {
-        return new CustomerResponseDTO(
-                customer.getId(),
-                customer.getFirstName(),
-                customer.getLastName(),
-                customer.getEmail(),
-                customer.getAddress(),
-                customer.getPhone(),
-                customer.getDob()
-        );
-    }
+    @Autowired
+    private CustomerLookupIndex lookupIndex;
+
+    @Autowired
+    private CustomerEmailIndex emailIndex;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private CustomerShards customerShards;
+
+    @Value("${customer.pagination.max-page-size:100}")
+    private int maxPageSize;
 
     @Transactional
     public CustomerResponseDTO createCustomer(CustomerCreateDTO customerDTO) {
-        if (customerRepository.existsByEmail(customerDTO.getEmail())) {
-            throw new CustomerAlreadyExistsException("Customer with email " + customerDTO.getEmail() + " already exists.");
+        // The unique constraint on email is the duplicate check; GlobalErrorHandling maps its violation to 409.
+        // Emails the index knows are in use are rejected up front so they never cost a failed INSERT.
+        // With shards, both jobs go to the email directory: the early check, and the claim after the INSERT decides.
+        if (emailIndex.mayBeTaken(customerDTO.email(), null) && emailTaken(customerDTO.email(), null)) {
+            throw new CustomerAlreadyExistsException("Email already used by another customer");
         }
-
-        Customer customer = customerRepository.save(mapToEntity(customerDTO));
-        return mapToResponseDTO(customer);
+        Customer entity = CustomerMapper.mapToEntity(customerDTO);
+        Customer customer = customerShards.onNew(entity, () -> customerRepository.saveAndFlush(entity));
+        customerShards.claimEmail(customer.getEmail(), customer.getId());
+        CustomerResponseDTO created = CustomerMapper.mapToResponseDTO(customer);
+        lookupIndex.put(created);
+        emailIndex.put(created.id(), created.email());
+        readYourWrites.written(created.id());
+        return created;
     }
 
+    // A cache miss for a customer this instance just wrote reads the primary, so a lagging replica cannot
+    // put the previous version back into the cache
+    @Cacheable(cacheNames = CustomerCacheConfig.CUSTOMERS_CACHE, key = "#id")
     @Transactional(readOnly = true)
     public CustomerResponseDTO getCustomerById(UUID id) {
-        CustomerResponseDTO customerDTO = customerRepository.findById(id).map(this::mapToResponseDTO).orElseThrow(() -> new NoSuchCustomerExistsException("No customer found with id " + id));
-        return customerDTO;
+        return customerShards.on(id, () -> readYourWrites.read(id, () -> customerRepository.findResponseById(id)))
+                .orElseThrow(() -> new NoSuchCustomerExistsException("No customer found with id " + id));
     }
 
     @Transactional(readOnly = true)
     public List<CustomerResponseDTO> getAllCustomers() {
-        return customerRepository.findAll().stream().map(this::mapToResponseDTO).toList();
+        List<List<CustomerResponseDTO>> perShard = customerShards.scatter(customerRepository::findAllResponses);
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        // A customer caught mid-move between shards can come back twice and is kept once
+        Map<UUID, CustomerResponseDTO> distinct = new LinkedHashMap<>();
+        perShard.stream().flatMap(List::stream).forEach(customer -> distinct.putIfAbsent(customer.id(), customer));
+        return List.copyOf(distinct.values());
     }
 
-    @Transactional
-    public CustomerResponseDTO updateCustomer(UUID id, CustomerUpdateDTO customerDTO) {
-        Customer customer = customerRepository.findById(id).orElseThrow(() -> new NoSuchCustomerExistsException("No customer found with id " + id));
+    @Transactional(readOnly = true)
+    public CustomerPageDTO getCustomerPage(String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        // Fetch one extra row to learn whether another page follows without a count query
+        PageRequest window = PageRequest.of(0, pageSize + 1);
 
-        if (!customerDTO.getEmail().equals(customer.getEmail())) {
-            if (customerRepository.existsByEmail(customerDTO.getEmail())) throw new CustomerAlreadyExistsException("Email already used by another customer");
-            customer.setEmail(customerDTO.getEmail());
+        CustomerCursor position = cursor == null ? null : CustomerCursor.decode(cursor);
+        List<List<Customer>> perShard = customerShards.scatter(() -> position == null
+                ? customerRepository.findFirstPage(window)
+                : customerRepository.findPageAfter(position.getCreatedAt(), position.getId(), window));
+        return toPage(merge(perShard, pageSize + 1), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerPageDTO searchCustomers(CustomerSearchCriteria criteria, String cursor, int limit) {
+        if (criteria.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one search filter is required");
+        }
+        if (criteria.dobFrom() != null && criteria.dobTo() != null && criteria.dobFrom().isAfter(criteria.dobTo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "dobFrom must not be after dobTo");
+        }
+        int pageSize = pageSize(limit);
+
+        Specification<Customer> matching = CustomerSpecifications.matching(criteria);
+        if (cursor != null) {
+            CustomerCursor position = CustomerCursor.decode(cursor);
+            matching = matching.and(CustomerSpecifications.after(position.getCreatedAt(), position.getId()));
+        }
+        Specification<Customer> spec = matching;
+        List<List<Customer>> perShard = customerShards.scatter(() -> customerRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("createdAt", "id"))
+                .limit(pageSize + 1)
+                .all()));
+        return toPage(merge(perShard, pageSize + 1), pageSize);
+    }
+
+    // Answered from the in-memory trigram index without touching the database
+    public List<CustomerLookupMatchDTO> lookupCustomers(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        if (!lookupIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Customer lookup index is still loading");
         }
+        return lookupIndex.search(query, pageSize(limit));
+    }
 
-        customer.setFirstName(customerDTO.getFirstName());
-        customer.setLastName(customerDTO.getLastName());
-        customer.setAddress(customerDTO.getAddress());
-        customer.setPhone(customerDTO.getPhone());
-        customer.setDob(customerDTO.getDob());
+    private int pageSize(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
 
-        Customer updatedCustomer = customerRepository.save(customer);
-        return mapToResponseDTO(updatedCustomer);
+    // Each shard returned its first `limit` rows in (createdAt, id) order, so the first `limit` of their union are
+    // the overall first. A customer caught mid-move between shards can come back twice and is kept once.
+    private static List<Customer> merge(List<List<Customer>> perShard, int limit) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        Map<UUID, Customer> distinct = new LinkedHashMap<>();
+        perShard.stream()
+                .flatMap(List::stream)
+                // PostgreSQL orders uuids by their unsigned bytes, as their hex strings do, not as UUID.compareTo
+                .sorted(Comparator.comparing(Customer::getCreatedAt).thenComparing(customer -> customer.getId().toString()))
+                .forEach(customer -> distinct.putIfAbsent(customer.getId(), customer));
+        return distinct.values().stream().limit(limit).toList();
     }
 
+    // rows holds up to pageSize + 1 entries; the extra one only signals that another page follows
+    private CustomerPageDTO toPage(List<Customer> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Customer> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Customer last = page.get(page.size() - 1);
+            nextCursor = new CustomerCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CustomerPageDTO(page.stream().map(CustomerMapper::mapToResponseDTO).toList(), nextCursor);
+    }
+
+    @CachePut(cacheNames = CustomerCacheConfig.CUSTOMERS_CACHE, key = "#id")
     @Transactional
-    public CustomerResponseDTO partialUpdateCustomer(UUID id, CustomerPatchDTO customerDTO) {
+    public CustomerResponseDTO updateCustomer(UUID id, CustomerUpdateDTO customerDTO, Long expectedVersion) {
+        return customerShards.on(id, () -> update(id, customerDTO, expectedVersion));
+    }
+
+    private CustomerResponseDTO update(UUID id, CustomerUpdateDTO customerDTO, Long expectedVersion) {
         Customer customer = customerRepository.findById(id).orElseThrow(() -> new NoSuchCustomerExistsException("No customer found with id " + id));
+        requireVersion(customer, expectedVersion);
 
-        if (customerDTO.getEmail() != null && !customerDTO.getEmail().equals(customer.getEmail())) {
-            if (customerRepository.existsByEmail(customerDTO.getEmail())) {
-                throw new CustomerAlreadyExistsException("Email already used by another customer");
-            }
-            customer.setEmail(customerDTO.getEmail());
+        String previousEmail = customer.getEmail();
+        rejectTakenEmail(customerDTO.email(), customer);
+        customer.setEmail(customerDTO.email());
+        customer.setFirstName(customerDTO.firstName());
+        customer.setLastName(customerDTO.lastName());
+        customer.setAddress(customerDTO.address());
+        customer.setPhone(customerDTO.phone());
+        customer.setDob(customerDTO.dob());
+
+        Customer updatedCustomer = saveVersioned(customer, expectedVersion);
+        customerShards.emailChanged(previousEmail, updatedCustomer.getEmail(), id);
+        CustomerResponseDTO updated = CustomerMapper.mapToResponseDTO(updatedCustomer);
+        lookupIndex.put(updated);
+        emailIndex.put(updated.id(), updated.email(), previousEmail);
+        readYourWrites.written(updated.id());
+        return updated;
+    }
+
+    @CachePut(cacheNames = CustomerCacheConfig.CUSTOMERS_CACHE, key = "#id")
+    @Transactional
+    public CustomerResponseDTO partialUpdateCustomer(UUID id, CustomerPatchDTO customerDTO, Long expectedVersion) {
+        return customerShards.on(id, () -> partialUpdate(id, customerDTO, expectedVersion));
+    }
+
+    private CustomerResponseDTO partialUpdate(UUID id, CustomerPatchDTO customerDTO, Long expectedVersion) {
+        Customer customer = customerRepository.findById(id).orElseThrow(() -> new NoSuchCustomerExistsException("No customer found with id " + id));
+        requireVersion(customer, expectedVersion);
+
+        String previousEmail = customer.getEmail();
+        if (customerDTO.email() != null) {
+            rejectTakenEmail(customerDTO.email(), customer);
+            customer.setEmail(customerDTO.email());
         }
-        if (customerDTO.getFirstName() != null) {
-            customer.setFirstName(customerDTO.getFirstName());
+        if (customerDTO.firstName() != null) {
+            customer.setFirstName(customerDTO.firstName());
         }
-        if (customerDTO.getLastName() != null) {
-            customer.setLastName(customerDTO.getLastName());
+        if (customerDTO.lastName() != null) {
+            customer.setLastName(customerDTO.lastName());
         }
-        if (customerDTO.getAddress() != null) {
-            customer.setAddress(customerDTO.getAddress());
+        if (customerDTO.address() != null) {
+            customer.setAddress(customerDTO.address());
         }
-        if (customerDTO.getPhone() != null) {
-            customer.setPhone(customerDTO.getPhone());
+        if (customerDTO.phone() != null) {
+            customer.setPhone(customerDTO.phone());
         }
-        if (customerDTO.getDob() != null) {
-            customer.setDob(customerDTO.getDob());
+        if (customerDTO.dob() != null) {
+            customer.setDob(customerDTO.dob());
         }
 
-        Customer updatedCustomer = customerRepository.save(customer);
-        return mapToResponseDTO(updatedCustomer);
+        Customer updatedCustomer = saveVersioned(customer, expectedVersion);
+        customerShards.emailChanged(previousEmail, updatedCustomer.getEmail(), id);
+        CustomerResponseDTO updated = CustomerMapper.mapToResponseDTO(updatedCustomer);
+        lookupIndex.put(updated);
+        emailIndex.put(updated.id(), updated.email(), previousEmail);
+        readYourWrites.written(updated.id());
+        return updated;
     }
 
+    @CacheEvict(cacheNames = CustomerCacheConfig.CUSTOMERS_CACHE, key = "#id")
     @Transactional
     public void deleteCustomerById(UUID id) {
-        Customer customer = customerRepository.findById(id).orElseThrow(() -> new NoSuchCustomerExistsException("No customer found with id " + id));
-        customerRepository.delete(customer);
+        if (customerShards.on(id, () -> customerRepository.removeById(id)) == 0) {
+            throw new NoSuchCustomerExistsException("No customer found with id " + id);
+        }
+        customerShards.removed(List.of(id));
+        lookupIndex.remove(id);
+        emailIndex.remove(id);
+        readYourWrites.written(id);
+    }
+
+    // expectedVersion comes from If-Match; null means the client did not make the write conditional
+    private static void requireVersion(Customer customer, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != customer.getVersion()) {
+            throw new CustomerVersionMismatchException("Customer " + customer.getId() + " is at version " + customer.getVersion() + ", not " + expectedVersion);
+        }
+    }
+
+    // The UPDATE carries "where version = ?", so a write that commits between our read and flush still fails here
+    private Customer saveVersioned(Customer customer, Long expectedVersion) {
+        try {
+            return customerRepository.saveAndFlush(customer);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            if (expectedVersion == null) {
+                throw ex;
+            }
+            throw new CustomerVersionMismatchException("Customer " + customer.getId() + " was modified after version " + expectedVersion);
+        }
+    }
+
+    private void rejectTakenEmail(String email, Customer customer) {
+        if (!email.equals(customer.getEmail())
+                && emailIndex.mayBeTaken(email, customer.getId())
+                && emailTaken(email, customer.getId())) {
+            throw new CustomerAlreadyExistsException("Email already used by another customer");
+        }
+    }
+
+    // Across shards only the directory knows every email; its query runs outside the shard transaction
+    private boolean emailTaken(String email, UUID self) {
+        if (customerShards.enabled()) {
+            return customerShards.emailTaken(email, self);
+        }
+        return self == null ? customerRepository.existsByEmail(email) : customerRepository.existsByEmailAndIdNot(email, self);
     }
 }
 
@@ -0,0 +1,243 @@
+package com.banking.backend.customer.shard;
+
+import com.banking.backend.customer.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Where the customer services send their work once customers are spread over several databases
+// (customer.shards.enabled, ShardDataSourceConfig). A transaction runs on a single shard: methods routing by id must
+// be entered before the transaction's first statement, and work spanning shards gets one transaction per shard.
+// Emails are claimed in the EmailDirectory alongside.
+//
+// Without shards every method runs its work in place within the caller's transaction, and the directory calls do
+// nothing: the unique constraint on the one database decides, as before.
+@Component
+public class CustomerShards {
+
+    @Autowired(required = false)
+    private ShardTopology topology;
+
+    @Autowired(required = false)
+    private EmailDirectory directory;
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    public boolean enabled() {
+        return topology != null;
+    }
+
+    public <T> T on(UUID id, Supplier<T> work) {
+        if (!enabled()) {
+            return work.get();
+        }
+        topology.settle(id);
+        String shard = topology.shardFor(id);
+        return ShardContext.on(() -> shard, work);
+    }
+
+    // For a customer about to be persisted: its shard is looked up when the INSERT fetches the connection, by which
+    // time persist has assigned the id
+    public <T> T onNew(Customer customer, Supplier<T> work) {
+        if (!enabled()) {
+            return work.get();
+        }
+        return ShardContext.on(() -> topology.shardFor(customer.getId()), work);
+    }
+
+    // Scatter-gather for reads: work runs on every shard at once, each in its own read-only transaction on a
+    // virtual thread. During a rebalance the shards receiving customers are only queried once every other shard has
+    // answered, so a customer being moved is not missed (ShardTopology.readPhases); it may come back twice.
+    // Results come back in phase order; merging them is up to the caller.
+    public <T> List<T> scatter(Supplier<T> work) {
+        if (!enabled()) {
+            return List.of(work.get());
+        }
+        TransactionTemplate readOnly = transaction(true);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<T> gathered = new ArrayList<>();
+            for (List<String> phase : topology.readPhases()) {
+                List<Future<T>> results = new ArrayList<>();
+                for (String shard : phase) {
+                    results.add(executor.submit(() -> ShardContext.on(() -> shard, () -> readOnly.execute(status -> work.get()))));
+                }
+                for (Future<T> result : results) {
+                    gathered.add(result.get());
+                }
+            }
+            return gathered;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying customer shards", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    // One shard after another on the calling thread, each in its own read-only transaction; for streaming reads
+    // that should not hold every shard's cursor open at once. Visits shards in read-phase order, like scatter.
+    public void eachShard(Runnable work) {
+        if (!enabled()) {
+            work.run();
+            return;
+        }
+        TransactionTemplate readOnly = transaction(true);
+        for (List<String> phase : topology.readPhases()) {
+            for (String shard : phase) {
+                ShardContext.on(() -> shard, () -> readOnly.execute(status -> {
+                    work.run();
+                    return null;
+                }));
+            }
+        }
+    }
+
+    // Splits ids by owning shard and runs work per shard in its own write transaction, committed as it goes
+    public <T> List<T> byShard(Collection<UUID> ids, Function<Set<UUID>, T> work) {
+        if (!enabled()) {
+            return List.of(work.apply(ids instanceof Set<UUID> set ? set : new LinkedHashSet<>(ids)));
+        }
+        Map<String, Set<UUID>> owned = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            topology.settle(id);
+            owned.computeIfAbsent(topology.shardFor(id), shard -> new LinkedHashSet<>()).add(id);
+        }
+        TransactionTemplate write = transaction(false);
+        List<T> results = new ArrayList<>(owned.size());
+        owned.forEach((shard, shardIds) -> results.add(ShardContext.on(() -> shard, () -> write.execute(status -> work.apply(shardIds)))));
+        return results;
+    }
+
+    public boolean emailTaken(String email, UUID self) {
+        return directory.isTaken(email, self);
+    }
+
+    public Set<String> takenEmails(Collection<String> emails) {
+        return directory.taken(emails);
+    }
+
+    // Claims the email now and gives it back if the surrounding transaction does not commit
+    public void claimEmail(String email, UUID id) {
+        if (!enabled()) {
+            return;
+        }
+        directory.claim(email, id);
+        onCompletion(() -> {}, () -> directory.release(email, id));
+    }
+
+    public void emailChanged(String previousEmail, String email, UUID id) {
+        if (!enabled() || previousEmail.equals(email)) {
+            return;
+        }
+        directory.claim(email, id);
+        onCompletion(() -> directory.release(previousEmail, id), () -> directory.release(email, id));
+    }
+
+    public void removed(Collection<UUID> ids) {
+        if (enabled() && !ids.isEmpty()) {
+            onCompletion(() -> directory.releaseAll(ids), () -> {});
+        }
+    }
+
+    // What became of the customers passed to insertAll: refused because their email is taken, or lost with a shard
+    // whose batch failed. All others were inserted.
+    public record Inserted(Set<UUID> refused, Set<UUID> failed) {
+    }
+
+    // Inserts new customers, which must already carry their ids, straight into their shards with one JDBC batch per
+    // shard, after claiming their emails. A shard whose batch fails only fails its own customers; the other shards'
+    // batches are committed independently and reported as inserted.
+    public Inserted insertAll(List<Customer> customers) {
+        Map<String, UUID> owners = new HashMap<>();
+        customers.forEach(customer -> owners.put(customer.getEmail(), customer.getId()));
+        Set<String> refusedEmails = directory.claimAll(owners);
+
+        Set<UUID> refused = new LinkedHashSet<>();
+        Map<String, List<Customer>> perShard = new LinkedHashMap<>();
+        for (Customer customer : customers) {
+            if (refusedEmails.contains(customer.getEmail())) {
+                refused.add(customer.getId());
+            } else {
+                perShard.computeIfAbsent(topology.shardFor(customer.getId()), shard -> new ArrayList<>()).add(customer);
+            }
+        }
+        Set<UUID> failed = new LinkedHashSet<>();
+        perShard.forEach((shard, shardCustomers) -> {
+            try {
+                topology.insert(shard, shardCustomers);
+            } catch (RuntimeException ex) {
+                failed.addAll(unwritten(shard, shardCustomers.stream().map(Customer::getId).toList()));
+            }
+        });
+        return new Inserted(refused, failed);
+    }
+
+    // A failed batch has normally rolled back, but a commit whose acknowledgement was lost may have gone through, so
+    // the shard is asked which rows it holds. Only the missing ones give their emails back. Should the shard or the
+    // directory not answer, the claims stay and are taken over as orphans later (EmailDirectory).
+    private Set<UUID> unwritten(String shard, List<UUID> ids) {
+        Set<UUID> missing = new LinkedHashSet<>(ids);
+        try {
+            missing.removeAll(topology.present(shard, ids));
+        } catch (RuntimeException ex) {
+            return missing;
+        }
+        if (!missing.isEmpty()) {
+            try {
+                directory.releaseAll(missing);
+            } catch (RuntimeException ex) {
+                // Left as orphans
+            }
+        }
+        return missing;
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        // The caller's transaction may already be bound to another shard, or to none yet
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static void onCompletion(Runnable committed, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // An unknown outcome keeps the claim; if nothing was committed it is taken over as an orphan later
+                if (status == STATUS_COMMITTED) {
+                    committed.run();
+                } else if (status == STATUS_ROLLED_BACK) {
+                    rolledBack.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.banking.backend.customer.shard;
+
+import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Email -> customer registry in the directory database, which keeps emails unique across shards: each shard's own
+// customer_emails only sees its customers. Claims are written in their own statements before the shard transaction
+// commits and handed back if it rolls back (CustomerShards). A process dying in between, or a release that never
+// ran after an email change, leaves a claim whose customer does not hold the email on its shard; once such a claim
+// is older than orphan-after, the next customer asking takes it over.
+public class EmailDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTopology topology;
+    private final Duration orphanAfter;
+
+    public EmailDirectory(JdbcTemplate jdbcTemplate, ShardTopology topology, Duration orphanAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topology = topology;
+        this.orphanAfter = orphanAfter;
+    }
+
+    public boolean isTaken(String email, UUID self) {
+        return jdbcTemplate.queryForList("select customer_id from customer_email_directory where email = ?", UUID.class, email)
+                .stream()
+                .anyMatch(owner -> !owner.equals(self));
+    }
+
+    public Set<String> taken(Collection<String> emails) {
+        List<String> found = jdbcTemplate.queryForList("select email from customer_email_directory where email = any (?)",
+                String.class, (Object) emails.toArray(String[]::new));
+        return new HashSet<>(found);
+    }
+
+    public void claim(String email, UUID id) {
+        if (!tryClaim(email, id)) {
+            throw new CustomerAlreadyExistsException("Email already used by another customer");
+        }
+    }
+
+    // The emails of claims that were refused; all others now belong to their customer. One INSERT for the lot, whose
+    // RETURNING says which went in: batch update counts carry no information once the driver rewrites the batch.
+    public Set<String> claimAll(Map<String, UUID> owners) {
+        List<String> emails = new ArrayList<>(owners.keySet());
+        Set<String> claimed = new HashSet<>(jdbcTemplate.queryForList(
+                "insert into customer_email_directory (email, customer_id, claimed_at) "
+                        + "select email, customer_id, now() from unnest(?::varchar[], ?::uuid[]) as claim(email, customer_id) "
+                        + "on conflict (email) do nothing returning email",
+                String.class, emails.toArray(String[]::new), emails.stream().map(owners::get).toArray(UUID[]::new)));
+        Set<String> refused = new HashSet<>();
+        for (String email : emails) {
+            if (!claimed.contains(email) && !tryClaim(email, owners.get(email))) {
+                refused.add(email);
+            }
+        }
+        return refused;
+    }
+
+    public void release(String email, UUID id) {
+        jdbcTemplate.update("delete from customer_email_directory where email = ? and customer_id = ?", email, id);
+    }
+
+    public void releaseAll(Collection<UUID> ids) {
+        jdbcTemplate.update("delete from customer_email_directory where customer_id = any (?)", (Object) ids.toArray(UUID[]::new));
+    }
+
+    private boolean tryClaim(String email, UUID id) {
+        int inserted = jdbcTemplate.update(
+                "insert into customer_email_directory (email, customer_id, claimed_at) values (?, ?, now()) on conflict (email) do nothing", email, id);
+        if (inserted == 1) {
+            return true;
+        }
+        List<Claim> holders = jdbcTemplate.query("select customer_id, claimed_at from customer_email_directory where email = ?",
+                (rs, row) -> new Claim(rs.getObject(1, UUID.class), rs.getTimestamp(2).toInstant()), email);
+        if (holders.isEmpty()) {
+            // Released between the two statements
+            return tryClaim(email, id);
+        }
+        Claim holder = holders.get(0);
+        if (holder.customerId().equals(id)) {
+            return true;
+        }
+        Instant orphanedBefore = Instant.now().minus(orphanAfter);
+        if (holder.claimedAt().isAfter(orphanedBefore) || topology.holdsEmail(holder.customerId(), email)) {
+            return false;
+        }
+        return jdbcTemplate.update("update customer_email_directory set customer_id = ?, claimed_at = now() where email = ? and customer_id = ? and claimed_at < ?",
+                id, email, holder.customerId(), Timestamp.from(orphanedBefore)) == 1;
+    }
+
+    private record Claim(UUID customerId, Instant claimedAt) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.backend.customer.shard;
+
+import java.util.function.Supplier;
+
+// Shard the current thread's customer work runs against, consulted by ShardRoutingDataSource when a transaction's
+// first statement fetches its connection. As with ReadRouting, the lazy connection proxy in front of the routing
+// is what lets CustomerShards set it inside an already open @Transactional method. The shard is held as a
+// supplier so a new customer can be routed by the id persist assigns just before the INSERT.
+final class ShardContext {
+
+    private static final ThreadLocal<Supplier<String>> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static String current() {
+        Supplier<String> shard = SHARD.get();
+        return shard == null ? null : shard.get();
+    }
+
+    static <T> T on(Supplier<String> shard, Supplier<T> work) {
+        Supplier<String> outer = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(outer);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.backend.customer.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// customer.shards.*: the databases customers are spread over, keyed by a shard name that must never change once
+// rows live there, since the ring hashes the names. previous lists the shard names from before the last shard was
+// added and is kept until ShardRebalancer has moved every customer to its new owner.
+@ConfigurationProperties("customer.shards")
+public record ShardProperties(Map<String, Node> nodes,
+                              @DefaultValue List<String> previous,
+                              @DefaultValue("128") int virtualNodes,
+                              @DefaultValue("5m") Duration orphanAfter) {
+
+    public record Node(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.banking.backend.customer.shard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Online rebalancing after a shard is added. Walks every shard of the previous ring in id order and moves the
+// customers the current ring now places elsewhere, one row lock at a time, while requests keep being served:
+// anything they touch is settled first. Started when customer.shards.previous is set; customer.shard.rebalance.running
+// drops to 0 once the walk is done, after which the property can be removed.
+//
+// Every instance runs the walk; moves are idempotent, so the duplicated work is only wasted, never harmful.
+public class ShardRebalancer {
+
+    private static final int BATCH = 1000;
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final ShardTopology topology;
+    private final Counter moved;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ShardRebalancer(ShardTopology topology, MeterRegistry meterRegistry) {
+        this.topology = topology;
+        this.moved = Counter.builder("customer.shard.rebalance.moved")
+                .description("Customers moved to the shard the current ring assigns them")
+                .register(meterRegistry);
+        Gauge.builder("customer.shard.rebalance.running", running, flag -> flag.get() ? 1 : 0)
+                .description("1 while customers are being moved between shards")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (topology.rebalancing() && running.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("customer-shard-rebalance").start(() -> {
+                try {
+                    topology.previousShards().forEach(this::drain);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private void drain(String shard) {
+        UUID after = FIRST;
+        while (true) {
+            List<UUID> ids = topology.idsAfter(shard, after, BATCH);
+            if (ids.isEmpty()) {
+                return;
+            }
+            for (UUID id : ids) {
+                String owner = topology.shardFor(id);
+                if (!owner.equals(shard) && topology.move(id, shard, owner)) {
+                    moved.increment();
+                }
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.banking.backend.customer.shard;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Consistent hashing of customer ids onto shard names. Every shard owns virtualNodes points on a 64-bit ring and a
+// customer belongs to the first point at or after the hash of its id. Adding a shard therefore only takes over the
+// ids just before its own points, about 1/N of them spread evenly over the others; every other customer stays put.
+public final class ShardRing {
+
+    private final List<String> shards;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public ShardRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        this.shards = shards.stream().sorted().toList();
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(point(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(UUID id) {
+        // v7 ids share their leading timestamp bits, so both halves are mixed before placing them on the ring
+        long hash = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+        Map.Entry<Long, String> owner = points.ceilingEntry(hash);
+        return (owner != null ? owner : points.firstEntry()).getValue();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static long point(String name) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.banking.backend.customer.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Connections for the shard in ShardContext; without one, for the directory database behind spring.datasource,
+// which also holds the Flyway history, idempotency keys and the email directory. An unknown shard name fails
+// instead of quietly landing on the directory.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(DataSource directory, Map<String, DataSource> shards) {
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(directory);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,146 @@
+package com.banking.backend.customer.shard;
+
+import com.banking.backend.customer.model.Customer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// The shard databases and which of them owns each customer. While a rebalance runs, `previous` is the ring from
+// before the newest shard was added: a customer the two rings place differently may still sit on its previous
+// shard until ShardRebalancer, or the first request touching it, moves it across (settle).
+//
+// Everything here talks JDBC to the shard pools directly, outside the JPA transaction of the calling request.
+public class ShardTopology {
+
+    private static final String INSERT = "insert into customers (id, first_name, last_name, email, address, phone, dob, created_at, updated_at, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, now(), now(), 0)";
+    private static final String COPY = "insert into customers (id, first_name, last_name, email, address, phone, dob, created_at, updated_at, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) on conflict (id) do nothing";
+
+    private final ShardRing ring;
+    private final ShardRing previous;
+    private final Map<String, DataSource> dataSources;
+    private final Map<String, JdbcTemplate> jdbc = new LinkedHashMap<>();
+    private final Map<String, TransactionTemplate> transactions = new LinkedHashMap<>();
+
+    public ShardTopology(ShardRing ring, ShardRing previous, Map<String, DataSource> shards) {
+        this.ring = ring;
+        this.previous = previous;
+        this.dataSources = Map.copyOf(shards);
+        shards.forEach((name, dataSource) -> {
+            jdbc.put(name, new JdbcTemplate(dataSource));
+            transactions.put(name, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        });
+        if (previous != null && !shards.keySet().containsAll(previous.shards())) {
+            throw new IllegalStateException("customer.shards.previous names shards missing from customer.shards.nodes: " + previous.shards());
+        }
+    }
+
+    public String shardFor(UUID id) {
+        return ring.shardFor(id);
+    }
+
+    public List<String> shards() {
+        return ring.shards();
+    }
+
+    // The shards in the order readers spanning all of them must visit them. During a rebalance rows only move from
+    // the previous ring's shards to the shards added since, so those are read in a second phase, after every source
+    // has been read; a row in flight is then found on one side or both, never missed.
+    public List<List<String>> readPhases() {
+        if (previous == null) {
+            return List.of(shards());
+        }
+        List<String> added = shards().stream().filter(shard -> !previous.shards().contains(shard)).toList();
+        return added.isEmpty() ? List.of(shards()) : List.of(previous.shards(), added);
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return dataSources;
+    }
+
+    public boolean rebalancing() {
+        return previous != null;
+    }
+
+    List<String> previousShards() {
+        return previous == null ? List.of() : previous.shards();
+    }
+
+    // Brings the customer to the shard the current ring expects before a request works on it there
+    public void settle(UUID id) {
+        if (previous == null) {
+            return;
+        }
+        String from = previous.shardFor(id);
+        String to = ring.shardFor(id);
+        if (!from.equals(to)) {
+            move(id, from, to);
+        }
+    }
+
+    // Copies the row and deletes the original while holding its row lock on the source, so a concurrent move or
+    // settle of the same customer waits and then finds nothing left to move. Dying after the copy leaves the row on
+    // both shards; the next move finds the copy in place and just deletes the original.
+    //
+    // The copy commits on its own before the delete does, so at every moment the row is visible on the target, the
+    // source or both. A reader that reads the source before the target therefore sees it at least once, maybe
+    // twice (readPhases); one reading both at once could see neither.
+    boolean move(UUID id, String from, String to) {
+        JdbcTemplate source = jdbc.get(from);
+        JdbcTemplate target = jdbc.get(to);
+        return Boolean.TRUE.equals(transactions.get(from).execute(status -> {
+            List<Map<String, Object>> rows = source.queryForList("select * from customers where id = ? for update", id);
+            if (rows.isEmpty()) {
+                return false;
+            }
+            Map<String, Object> row = rows.get(0);
+            target.update(COPY, row.get("id"), row.get("first_name"), row.get("last_name"), row.get("email"), row.get("address"),
+                    row.get("phone"), row.get("dob"), row.get("created_at"), row.get("updated_at"), row.get("version"));
+            source.update("delete from customers where id = ?", id);
+            return true;
+        }));
+    }
+
+    // Whether the customer's row, on either ring's owner, carries this email. Checking both means a claim is never
+    // taken over mid-move: move copies the row before it deletes the original, so one of them is always visible.
+    public boolean holdsEmail(UUID id, String email) {
+        if (holds(ring.shardFor(id), id, email)) {
+            return true;
+        }
+        return previous != null && holds(previous.shardFor(id), id, email);
+    }
+
+    // One JDBC batch per shard; the version starts at 0 and the timestamps are the database's, as with JPA inserts
+    public void insert(String shard, List<Customer> customers) {
+        List<Object[]> rows = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            rows.add(new Object[] {customer.getId(), customer.getFirstName(), customer.getLastName(), customer.getEmail(),
+                    customer.getAddress(), customer.getPhone(), Date.valueOf(customer.getDob())});
+        }
+        transactions.get(shard).executeWithoutResult(status -> jdbc.get(shard).batchUpdate(INSERT, rows));
+    }
+
+    // The ids among these that the shard holds
+    public Set<UUID> present(String shard, Collection<UUID> ids) {
+        return new HashSet<>(jdbc.get(shard).queryForList("select id from customers where id = any (?)", UUID.class, (Object) ids.toArray(UUID[]::new)));
+    }
+
+    List<UUID> idsAfter(String shard, UUID after, int limit) {
+        return jdbc.get(shard).queryForList("select id from customers where id > ? order by id limit ?", UUID.class, after, limit);
+    }
+
+    private boolean holds(String shard, UUID id, String email) {
+        return !jdbc.get(shard).queryForList("select 1 from customers where id = ? and email = ?", Integer.class, id, email).isEmpty();
+    }
+}
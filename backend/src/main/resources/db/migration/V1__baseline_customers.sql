@@ -0,0 +1,69 @@
+-- The schema as spring.jpa.hibernate.ddl-auto=update and the old db/customer-search-indexes.sql script left it,
+-- plus what the entity gained since. New databases start here. Databases created by ddl-auto are baselined below
+-- it (spring.flyway.baseline-on-migrate, baseline-version 0) and run it too, so every statement tolerates finding
+-- its object already there, in whichever form ddl-auto gave it. Tuning lives in later versions.
+
+CREATE TABLE IF NOT EXISTS customers (
+    id          uuid                        NOT NULL,
+    first_name  varchar(255)                NOT NULL,
+    last_name   varchar(255)                NOT NULL,
+    email       varchar(255)                NOT NULL,
+    address     varchar(255)                NOT NULL,
+    phone       varchar(255)                NOT NULL,
+    dob         date                        NOT NULL,
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    version     bigint DEFAULT 0            NOT NULL,
+    CONSTRAINT customers_pkey PRIMARY KEY (id),
+    -- Named in Customer.EMAIL_UNIQUE_CONSTRAINT; the error handler maps its violations to 409.
+    -- Also serves existsByEmail, existsByEmailAndIdNot and findExistingEmails as index-only scans.
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
+
+-- The optimistic-lock column postdates the first ddl-auto schemas
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- ddl-auto named the email constraint after a hash of its columns (uk<hash>), which the error handler does not
+-- recognise: give it the expected name. Renaming the constraint renames its index too.
+DO $$
+DECLARE
+    existing name;
+BEGIN
+    SELECT con.conname INTO existing
+    FROM pg_constraint con
+    JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+    WHERE con.conrelid = 'customers'::regclass AND con.contype = 'u'
+      AND array_length(con.conkey, 1) = 1 AND att.attname = 'email';
+    IF existing IS NULL THEN
+        ALTER TABLE customers ADD CONSTRAINT uk_customers_email UNIQUE (email);
+    ELSIF existing <> 'uk_customers_email' THEN
+        EXECUTE format('ALTER TABLE customers RENAME CONSTRAINT %I TO uk_customers_email', existing);
+    END IF;
+END $$;
+
+-- Keyset pagination (findFirstPage, findPageAfter, searchCustomers): ORDER BY created_at, id
+CREATE INDEX IF NOT EXISTS idx_customers_created_at_id ON customers (created_at, id);
+-- Search filters: phone equality, dob range
+CREATE INDEX IF NOT EXISTS idx_customers_phone ON customers (phone);
+CREATE INDEX IF NOT EXISTS idx_customers_dob ON customers (dob);
+
+-- GIN trigram indexes serve LIKE patterns even when the pattern is a bind parameter, which a btree
+-- text_pattern_ops index only does for literal prefixes.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- lastNamePrefix: lower(last_name) LIKE 'smi%'
+CREATE INDEX IF NOT EXISTS idx_customers_last_name_trgm ON customers USING gin (lower(last_name) gin_trgm_ops);
+
+-- emailDomain: lower(email) LIKE '%@example.com'
+CREATE INDEX IF NOT EXISTS idx_customers_email_trgm ON customers USING gin (lower(email) gin_trgm_ops);
+
+-- IdempotencyStore's durable side
+CREATE TABLE IF NOT EXISTS customer_idempotency_keys (
+    idempotency_key     varchar(255)                NOT NULL,
+    request_fingerprint varchar(64)                 NOT NULL,
+    response            text,
+    created_at          timestamp(6) with time zone NOT NULL,
+    CONSTRAINT customer_idempotency_keys_pkey PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_customer_idempotency_keys_created_at ON customer_idempotency_keys (created_at);
@@ -0,0 +1,15 @@
+-- Storage settings ddl-auto cannot express. ALTER ... SET only changes how pages are filled from now on;
+-- REINDEX INDEX CONCURRENTLY applies it to an existing index without blocking writes, if that is ever needed.
+
+-- PATCH and PUT rewrite a row without touching its indexed columns unless the email, phone, dob or last name
+-- changes. Leaving 10% of each heap page free lets those updates stay on the page as HOT updates, which skip
+-- every index.
+ALTER TABLE customers SET (fillfactor = 90);
+
+-- UUIDv7 ids and created_at only ever grow, so these indexes split at their right-hand edge and the pages left
+-- behind are never written again: pack them full.
+ALTER INDEX customers_pkey SET (fillfactor = 100);
+ALTER INDEX idx_customers_created_at_id SET (fillfactor = 100);
+
+-- The default 20% threshold means a 10M-row table waits for 2M dead rows before autovacuum runs
+ALTER TABLE customers SET (autovacuum_vacuum_scale_factor = 0.05, autovacuum_analyze_scale_factor = 0.02);
@@ -0,0 +1,78 @@
+-- Hash-partitions customers on id so vacuum, analyze and index maintenance work on 16 tables of 1/16th the size,
+-- each on its own autovacuum schedule. Point lookups by id are pruned to a single partition.
+--
+-- A unique index on a partitioned table has to include the partition key, so email uniqueness moves to the
+-- customer_emails lookup table, maintained by triggers. Its primary key keeps the uk_customers_email name the
+-- error handler matches on, so duplicate emails still surface as 409.
+--
+-- The existing rows are copied inside this migration's transaction, blocking writes meanwhile: run it in a
+-- maintenance window on a large table. Changing the partition count later means another copy like this one.
+
+CREATE TABLE customers_partitioned (
+    id          uuid                        NOT NULL,
+    first_name  varchar(255)                NOT NULL,
+    last_name   varchar(255)                NOT NULL,
+    email       varchar(255)                NOT NULL,
+    address     varchar(255)                NOT NULL,
+    phone       varchar(255)                NOT NULL,
+    dob         date                        NOT NULL,
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    version     bigint DEFAULT 0            NOT NULL
+) PARTITION BY HASH (id);
+
+-- Storage parameters cannot be set on a partitioned table itself, so V2's settings are repeated per partition
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE customers_p%s PARTITION OF customers_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s) '
+            'WITH (fillfactor = 90, autovacuum_vacuum_scale_factor = 0.05, autovacuum_analyze_scale_factor = 0.02)',
+            lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END $$;
+
+INSERT INTO customers_partitioned (id, first_name, last_name, email, address, phone, dob, created_at, updated_at, version)
+SELECT id, first_name, last_name, email, address, phone, dob, created_at, updated_at, version FROM customers;
+
+CREATE TABLE customer_emails (
+    email       varchar(255) NOT NULL,
+    customer_id uuid         NOT NULL,
+    CONSTRAINT uk_customers_email_lookup PRIMARY KEY (email)
+);
+
+INSERT INTO customer_emails (email, customer_id) SELECT email, id FROM customers;
+
+DROP TABLE customers;
+ALTER TABLE customers_partitioned RENAME TO customers;
+ALTER INDEX uk_customers_email_lookup RENAME TO uk_customers_email;
+
+-- Indexes are built after the copy, and on a partitioned table each is created on every partition
+ALTER TABLE customers ADD CONSTRAINT customers_pkey PRIMARY KEY (id) WITH (fillfactor = 100);
+CREATE INDEX idx_customers_created_at_id ON customers (created_at, id) WITH (fillfactor = 100);
+CREATE INDEX idx_customers_phone ON customers (phone);
+CREATE INDEX idx_customers_dob ON customers (dob);
+CREATE INDEX idx_customers_last_name_trgm ON customers USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX idx_customers_email_trgm ON customers USING gin (lower(email) gin_trgm_ops);
+-- Maintenance of the lookup table on delete finds the row by its owner
+CREATE INDEX idx_customer_emails_customer_id ON customer_emails (customer_id);
+
+-- AFTER row triggers fire within the writing statement, so a duplicate fails the INSERT or UPDATE that caused it
+CREATE FUNCTION customer_emails_sync() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO customer_emails (email, customer_id) VALUES (NEW.email, NEW.id);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE customer_emails SET email = NEW.email WHERE email = OLD.email AND customer_id = OLD.id;
+    ELSE
+        DELETE FROM customer_emails WHERE email = OLD.email AND customer_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER customers_email_insert AFTER INSERT ON customers
+    FOR EACH ROW EXECUTE FUNCTION customer_emails_sync();
+CREATE TRIGGER customers_email_update AFTER UPDATE OF email ON customers
+    FOR EACH ROW WHEN (OLD.email IS DISTINCT FROM NEW.email) EXECUTE FUNCTION customer_emails_sync();
+CREATE TRIGGER customers_email_delete AFTER DELETE ON customers
+    FOR EACH ROW EXECUTE FUNCTION customer_emails_sync();
@@ -0,0 +1,12 @@
+-- Global email directory for sharded deployments (customer.shards.*): every email in use across all shards and
+-- the customer holding it. Only the directory database (spring.datasource) fills it; on shards and unsharded
+-- databases it stays empty, where customer_emails alone keeps emails unique.
+CREATE TABLE customer_email_directory (
+    email       varchar(255)                NOT NULL,
+    customer_id uuid                        NOT NULL,
+    claimed_at  timestamp(6) with time zone NOT NULL,
+    CONSTRAINT customer_email_directory_pkey PRIMARY KEY (email)
+);
+
+-- Releasing a deleted customer's email looks the claim up by customer
+CREATE INDEX idx_customer_email_directory_customer_id ON customer_email_directory (customer_id);
@@ -0,0 +1,38 @@
+package com.banking.backend;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Tests used to start from an empty schema via ddl-auto=create-drop. They now get the same from Flyway:
+// every test context drops the schema and migrates it from V1, which also exercises the migrations.
+// Only a database whose name ends in _test is ever cleaned, so a test run pointed at the wrong URL fails instead
+// of wiping it.
+@Configuration
+public class CleanMigrateConfig {
+
+    private static final String TEST_DATABASE_SUFFIX = "_test";
+
+    @Bean
+    public FlywayMigrationStrategy cleanMigrate() {
+        return flyway -> {
+            requireTestDatabase(flyway.getConfiguration().getDataSource());
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+
+    private static void requireTestDatabase(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            String database = connection.getCatalog();
+            if (database == null || !database.endsWith(TEST_DATABASE_SUFFIX)) {
+                throw new IllegalStateException("Refusing to clean database " + database + ": tests only clean one named *" + TEST_DATABASE_SUFFIX);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not check which database the tests would clean", ex);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.backend;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import javax.sql.DataSource;
+import java.util.List;
+
+// A database as the application left it before Flyway: the baseline commit's Customer entity under
+// ddl-auto=update, holding a customer. Migrating it the way the application does (baseline-on-migrate at 0)
+// must bring it to the same schema a new database gets, with the customer kept.
+public class LegacySchemaMigrationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateLegacySchema() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("create database legacy_test");
+        dataSource = postgres.getDatabase("postgres", "legacy_test");
+        jdbc = new JdbcTemplate(dataSource);
+
+        // What Hibernate's schema update issued for that entity; the unique key is named after a hash
+        jdbc.execute("create table customers (id uuid not null, address varchar(255) not null, created_at timestamp(6) with time zone not null, "
+                + "dob date not null, email varchar(255) not null, first_name varchar(255) not null, last_name varchar(255) not null, "
+                + "phone varchar(255) not null, updated_at timestamp(6) with time zone not null, primary key (id))");
+        jdbc.execute("alter table if exists customers add constraint ukrfbvkrffamfql7cjmen8v976v unique (email)");
+        jdbc.update("insert into customers (id, address, created_at, dob, email, first_name, last_name, phone, updated_at) "
+                + "values ('0190c6b2-9a38-7c3e-8d7e-3a4b5c6d7e8f', '123 Main St', now(), '1990-01-01', 'john@example.com', 'John', 'Doe', '+1234567890', now())");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void migratesToTheLatestVersion() {
+        Flyway flyway = Flyway.configure().dataSource(dataSource).load();
+
+        assertEquals("4", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void keepsTheCustomerWithAnInitialVersion() {
+        assertEquals(List.of(0L), jdbc.queryForList("select version from customers where email = 'john@example.com'", Long.class));
+    }
+
+    @Test
+    void duplicateEmail_violatesTheNamedConstraint() {
+        DuplicateKeyException ex = assertThrows(DuplicateKeyException.class, () -> jdbc.update(
+                "insert into customers (id, address, created_at, dob, email, first_name, last_name, phone, updated_at) "
+                        + "values (gen_random_uuid(), '1 Other St', now(), '1991-01-01', 'john@example.com', 'Jane', 'Doe', '+1234567891', now())"));
+
+        assertTrue(ex.getMessage().contains("uk_customers_email"));
+    }
+
+    @Test
+    void hasTheIndexesANewDatabaseGets() {
+        List<String> indexes = jdbc.queryForList("select indexname from pg_indexes where tablename = 'customers'", String.class);
+
+        assertTrue(indexes.containsAll(List.of("customers_pkey", "idx_customers_created_at_id", "idx_customers_phone", "idx_customers_dob",
+                "idx_customers_last_name_trgm", "idx_customers_email_trgm")), indexes.toString());
+    }
+}
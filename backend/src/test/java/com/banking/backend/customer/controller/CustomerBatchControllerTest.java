@@ -0,0 +1,69 @@
+package com.banking.backend.customer.controller;
+
+import com.banking.backend.customer.dto.CustomerBatchResultDTO;
+import com.banking.backend.customer.dto.CustomerBulkDeleteResultDTO;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.service.CustomerBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+
+@WebMvcTest(CustomerBatchController.class)
+public class CustomerBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private CustomerBatchService customerBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createBatch_ReturnsPerItemResults() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        List<CustomerCreateDTO> request = List.of(
+                new CustomerCreateDTO("John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1)),
+                new CustomerCreateDTO("Jane", "Doe", "jane@example.com", "456 Side Ave", "+1987654321", LocalDate.of(1991, 1, 1))
+        );
+        List<CustomerBatchResultDTO> response = List.of(
+                CustomerBatchResultDTO.created(0, new CustomerResponseDTO(customerId, "John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 0L)),
+                CustomerBatchResultDTO.rejected(1, CustomerBatchResultDTO.Status.DUPLICATE, "exists")
+        );
+
+        when(customerBatchService.createCustomers(request)).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/customers:batch").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.length()").value(2)).
+                andExpect(jsonPath("$[0].status").value("CREATED")).
+                andExpect(jsonPath("$[0].customer.id").value(customerId.toString())).
+                andExpect(jsonPath("$[1].status").value("DUPLICATE")).
+                andExpect(jsonPath("$[1].message").value("exists"));
+    }
+
+    @Test
+    void deleteBatch_ReturnsCounts() throws Exception {
+        List<UUID> request = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(customerBatchService.deleteCustomers(request)).thenReturn(new CustomerBulkDeleteResultDTO(2, 1));
+
+        mockMvc.perform(post("/api/v1/customers:batchDelete").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.requested").value(2)).
+                andExpect(jsonPath("$.deleted").value(1));
+    }
+}
@@ -1,31 +1,55 @@
 package com.banking.backend.customer.controller;
 
 import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerLookupMatchDTO;
+import com.banking.backend.customer.dto.CustomerPageDTO;
 import com.banking.backend.customer.dto.CustomerPatchDTO;
 import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.dto.CustomerSearchCriteria;
 import com.banking.backend.customer.dto.CustomerUpdateDTO;
 import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import com.banking.backend.customer.exception.CustomerVersionMismatchException;
 import com.banking.backend.customer.exception.NoSuchCustomerExistsException;
+import com.banking.backend.customer.idempotency.IdempotencyStore;
+import com.banking.backend.customer.repository.IdempotencyRecordRepository;
+import com.banking.backend.customer.service.CustomerExportService;
 import com.banking.backend.customer.service.CustomerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.http.HttpStatus;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.hibernate.exception.ConstraintViolationException;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
@@ -33,12 +57,20 @@ import java.util.UUID;
 
 
 @WebMvcTest(CustomerController.class)
+@Import(IdempotencyStore.class)
 public class CustomerControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
     @MockitoBean
     private CustomerService customerService;
+    @MockitoBean
+    private CustomerExportService customerExportService;
+    // Only used by the store's persistent mode, which these tests leave off
+    @MockitoBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
 
     private final UUID customerId = UUID.randomUUID();
 
@@ -66,7 +98,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.of(1990, 1, 1),
+                0L
         );
 
         when(customerService.createCustomer(createDTO)).thenReturn(response);
@@ -94,18 +127,74 @@ public class CustomerControllerTest {
                 andExpect(status().isConflict());
     }
 
+    @Test
+    void create_WhenEmailConstraintViolated_ReturnsConflict() throws Exception {
+        CustomerCreateDTO createDTO = new CustomerCreateDTO(
+                "John",
+                "Doe",
+                "john@example.com",
+                "123 Main St",
+                "+1234567890",
+                LocalDate.of(1990, 1, 1)
+        );
+
+        ConstraintViolationException violation = new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), "uk_customers_email");
+        when(customerService.createCustomer(createDTO)).thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+        mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
+                andExpect(status().isConflict()).
+                andExpect(jsonPath("$.message").value("Email already used by another customer"));
+    }
+
+    @Test
+    void create_RetryWithSameIdempotencyKey_ReplaysFirstResponse() throws Exception {
+        CustomerCreateDTO createDTO = new CustomerCreateDTO("Ida", "Retry", "ida@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+        CustomerResponseDTO response = new CustomerResponseDTO(customerId, "Ida", "Retry", "ida@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 0L);
+        when(customerService.createCustomer(createDTO)).thenReturn(response);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/v1/customers")
+                            .header("Idempotency-Key", "create-ida")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(createDTO))).
+                    andExpect(status().isOk()).
+                    andExpect(jsonPath("$.id").value(customerId.toString()));
+        }
+        verify(customerService, times(1)).createCustomer(createDTO);
+    }
+
+    @Test
+    void create_IdempotencyKeyReusedForDifferentBody_ReturnsUnprocessableEntity() throws Exception {
+        CustomerCreateDTO first = new CustomerCreateDTO("Ida", "Retry", "ida.reuse@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+        CustomerCreateDTO second = new CustomerCreateDTO("Ida", "Retry", "someone.else@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+        when(customerService.createCustomer(first)).thenReturn(new CustomerResponseDTO(customerId, "Ida", "Retry", "ida.reuse@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 0L));
+
+        mockMvc.perform(post("/api/v1/customers").header("Idempotency-Key", "create-reused").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(first))).
+                andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/customers").header("Idempotency-Key", "create-reused").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(second))).
+                andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void create_InvalidBodyWithIdempotencyKey_IsNotRemembered() throws Exception {
+        CustomerCreateDTO createDTO = new CustomerCreateDTO("", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/v1/customers").header("Idempotency-Key", "create-invalid").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
+                    andExpect(status().isBadRequest()).
+                    andExpect(jsonPath("$.message").value("Validation failed: First name is required."));
+        }
+    }
 
     @Test
     void create_WhenBlank_thenBadRequest() throws Exception {
         CustomerCreateDTO createDTO = new CustomerCreateDTO(
-                "John",
+                "",
                 "Doe",
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
                 LocalDate.of(1990, 1, 1)
         );
-        createDTO.setFirstName("");
 
         mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
                 andExpect(status().isBadRequest()).
@@ -118,12 +207,11 @@ public class CustomerControllerTest {
         CustomerCreateDTO createDTO = new CustomerCreateDTO(
                 "John",
                 "Doe",
-                "john@example.com",
+                "not-an-email",
                 "123 Main St",
                 "+1234567890",
                 LocalDate.of(1990, 1, 1)
         );
-        createDTO.setEmail("not-an-email");
 
         mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
                 andExpect(status().isBadRequest()).
@@ -138,10 +226,9 @@ public class CustomerControllerTest {
                 "Doe",
                 "john@example.com",
                 "123 Main St",
-                "+1234567890",
+                "+123-456-7890",
                 LocalDate.of(1990, 1, 1)
         );
-        createDTO.setPhone("+123-456-7890");
 
         mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
                 andExpect(status().isBadRequest()).
@@ -157,9 +244,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                null
         );
-        createDTO.setDob(null);
 
         mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
                 andExpect(status().isBadRequest()).
@@ -175,9 +261,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.now()
         );
-        createDTO.setDob(LocalDate.now());
 
         mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
                 andExpect(status().isBadRequest()).
@@ -193,9 +278,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.now().plusDays(1)
         );
-        createDTO.setDob(LocalDate.now().plusDays(1));
 
         mockMvc.perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createDTO))).
                 andExpect(status().isBadRequest()).
@@ -215,16 +299,39 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.of(1990, 1, 1),
+                0L
         );
 
         when(customerService.getCustomerById(customerId)).thenReturn(response);
         mockMvc.perform(get("/api/v1/customers/{id}", customerId)).
                 andExpect(status().isOk()).
                 andExpect(content().contentType(MediaType.APPLICATION_JSON)).
-                andExpect(jsonPath("$.id").value(response.getId().toString())).
-                andExpect(jsonPath("$.firstName").value(response.getFirstName())).
-                andExpect(jsonPath("$.email").value(response.getEmail()));
+                andExpect(jsonPath("$.id").value(response.id().toString())).
+                andExpect(jsonPath("$.firstName").value(response.firstName())).
+                andExpect(jsonPath("$.email").value(response.email()));
+    }
+
+    @Test
+    void getById_SetsVersionETag() throws Exception {
+        CustomerResponseDTO response = new CustomerResponseDTO(customerId, "John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 3L);
+        when(customerService.getCustomerById(customerId)).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/customers/{id}", customerId)).
+                andExpect(status().isOk()).
+                andExpect(header().string("ETag", "\"3\"")).
+                andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void getById_MatchingIfNoneMatch_Returns304WithoutBody() throws Exception {
+        CustomerResponseDTO response = new CustomerResponseDTO(customerId, "John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 3L);
+        when(customerService.getCustomerById(customerId)).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/customers/{id}", customerId).header("If-None-Match", "\"3\"")).
+                andExpect(status().isNotModified()).
+                andExpect(header().string("ETag", "\"3\"")).
+                andExpect(content().string(""));
     }
 
     @Test
@@ -247,7 +354,8 @@ public class CustomerControllerTest {
                         "john@example.com",
                         "123 Main St",
                         "+1234567890",
-                        LocalDate.of(1990, 1, 1)
+                        LocalDate.of(1990, 1, 1),
+                        0L
                 ),
 
                 new CustomerResponseDTO(
@@ -257,7 +365,8 @@ public class CustomerControllerTest {
                         "jane@gmail.com",
                         "456 Side Ave",
                         "+987654321",
-                        LocalDate.of(1999, 1, 1)
+                        LocalDate.of(1999, 1, 1),
+                        0L
                 )
         );
 
@@ -283,6 +392,132 @@ public class CustomerControllerTest {
         mockMvc.perform(get("/api/v1/customers")).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void getPage_ReturnsItemsAndCursor() throws Exception {
+        CustomerResponseDTO response = new CustomerResponseDTO(
+                customerId,
+                "John",
+                "Doe",
+                "john@example.com",
+                "123 Main St",
+                "+1234567890",
+                LocalDate.of(1990, 1, 1),
+                0L
+        );
+
+        when(customerService.getCustomerPage(null, 1)).thenReturn(new CustomerPageDTO(List.of(response), "next-token"));
+
+        mockMvc.perform(get("/api/v1/customers").param("limit", "1")).andExpect(status().isOk()).
+                andExpect(jsonPath("$.items.length()").value(1)).
+                andExpect(jsonPath("$.items[0].id").value(customerId.toString())).
+                andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+
+    @Test
+    void getPage_WithCursor_PassesCursorThrough() throws Exception {
+        when(customerService.getCustomerPage("abc", 20)).thenReturn(new CustomerPageDTO(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/v1/customers").param("limit", "20").param("cursor", "abc")).andExpect(status().isOk()).
+                andExpect(jsonPath("$.items.length()").value(0)).
+                andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getPage_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(customerService.getCustomerPage("bad", 20)).thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/customers").param("limit", "20").param("cursor", "bad")).andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void search_BindsFiltersFromQueryString() throws Exception {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria("Do", null, LocalDate.of(1980, 1, 1), LocalDate.of(1995, 12, 31), "example.com");
+        when(customerService.searchCustomers(criteria, null, 20)).thenReturn(new CustomerPageDTO(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/v1/customers/search")
+                        .param("lastNamePrefix", "Do")
+                        .param("dobFrom", "1980-01-01")
+                        .param("dobTo", "1995-12-31")
+                        .param("emailDomain", "example.com")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void search_WithoutFilters_ReturnsBadRequest() throws Exception {
+        when(customerService.searchCustomers(new CustomerSearchCriteria(null, null, null, null, null), null, 20))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one search filter is required"));
+
+        mockMvc.perform(get("/api/v1/customers/search")).andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.message").value("At least one search filter is required"));
+    }
+
+    @Test
+    void update_WithIfMatch_PassesExpectedVersionAndReturnsNewETag() throws Exception {
+        CustomerUpdateDTO updateDTO = new CustomerUpdateDTO("Johnny", "Doe", "johnny@example.com", "456 Elm St", "+1987654321", LocalDate.of(1991, 2, 2));
+        CustomerResponseDTO response = new CustomerResponseDTO(customerId, "Johnny", "Doe", "johnny@example.com", "456 Elm St", "+1987654321", LocalDate.of(1991, 2, 2), 4L);
+        when(customerService.updateCustomer(customerId, updateDTO, 3L)).thenReturn(response);
+
+        mockMvc.perform(put("/api/v1/customers/{id}", customerId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO))).
+                andExpect(status().isOk()).
+                andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void patch_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+1987654321", null);
+        when(customerService.partialUpdateCustomer(customerId, patchDTO, 2L)).thenThrow(new CustomerVersionMismatchException("Customer is at version 3, not 2"));
+
+        mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchDTO))).
+                andExpect(status().isPreconditionFailed()).
+                andExpect(jsonPath("$.message").value("Customer is at version 3, not 2"));
+    }
+
+    @Test
+    void patch_WeakIfMatch_ReturnsPreconditionFailed() throws Exception {
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+1987654321", null);
+
+        mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
+                        .header("If-Match", "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchDTO))).
+                andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void lookup_ReturnsRankedMatches() throws Exception {
+        CustomerResponseDTO john = new CustomerResponseDTO(customerId, "John", "Smith", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 0L);
+        when(customerService.lookupCustomers("Jon Smtih", 10)).thenReturn(List.of(new CustomerLookupMatchDTO(john, 0.4)));
+
+        mockMvc.perform(get("/api/v1/customers/lookup").param("q", "Jon Smtih")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].customer.lastName").value("Smith")).
+                andExpect(jsonPath("$[0].score").value(0.4));
+    }
+
+    @Test
+    void export_StreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"email\":\"john@example.com\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(customerExportService).exportCustomers(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/customers/export")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).
+                andExpect(status().isOk()).
+                andExpect(content().contentType(MediaType.APPLICATION_NDJSON)).
+                andExpect(content().string("{\"email\":\"john@example.com\"}\n"));
+    }
+
     // -------------------- UPDATE (PUT) --------------------
 
     @Test
@@ -304,16 +539,17 @@ public class CustomerControllerTest {
                 "john.doe@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.of(1990, 1, 1),
+                0L
         );
 
-        when(customerService.updateCustomer(customerId, updateDTO)).thenReturn(response);
+        when(customerService.updateCustomer(customerId, updateDTO, null)).thenReturn(response);
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isOk()).
-                andExpect(jsonPath("$.id").value(response.getId().toString())).
-                andExpect(jsonPath("$.firstName").value(response.getFirstName())).
-                andExpect(jsonPath("$.email").value(response.getEmail()));
+                andExpect(jsonPath("$.id").value(response.id().toString())).
+                andExpect(jsonPath("$.firstName").value(response.firstName())).
+                andExpect(jsonPath("$.email").value(response.email()));
     }
 
     @Test
@@ -328,7 +564,7 @@ public class CustomerControllerTest {
                 LocalDate.of(1990, 1, 1)
         );
 
-        when(customerService.updateCustomer(customerId, updateDTO)).thenThrow(new NoSuchCustomerExistsException("no such customer"));
+        when(customerService.updateCustomer(customerId, updateDTO, null)).thenThrow(new NoSuchCustomerExistsException("no such customer"));
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).andExpect(status().isNotFound());
 
@@ -345,7 +581,7 @@ public class CustomerControllerTest {
                 LocalDate.of(1990, 1, 1)
         );
 
-        when(customerService.updateCustomer(customerId, updateDTO)).thenThrow(new CustomerAlreadyExistsException("customer already exists"));
+        when(customerService.updateCustomer(customerId, updateDTO, null)).thenThrow(new CustomerAlreadyExistsException("customer already exists"));
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).andExpect(status().isConflict());
 
@@ -355,13 +591,12 @@ public class CustomerControllerTest {
     void update_WhenBlank_thenBadRequest() throws Exception {
         CustomerUpdateDTO updateDTO = new CustomerUpdateDTO(
                 "John",
-                "Doe",
+                "",
                 "john.doe@example.com",
                 "123 Main St",
                 "+1234567890",
                 LocalDate.of(1990, 1, 1)
         );
-        updateDTO.setLastName("");
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isBadRequest()).
@@ -374,12 +609,11 @@ public class CustomerControllerTest {
         CustomerUpdateDTO updateDTO = new CustomerUpdateDTO(
                 "John",
                 "Doe",
-                "john.doe@example.com",
+                "not-an-email",
                 "123 Main St",
                 "+1234567890",
                 LocalDate.of(1990, 1, 1)
         );
-        updateDTO.setEmail("not-an-email");
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isBadRequest()).
@@ -394,10 +628,9 @@ public class CustomerControllerTest {
                 "Doe",
                 "john.doe@example.com",
                 "123 Main St",
-                "+1234567890",
+                "+1234567890123456789",
                 LocalDate.of(1990, 1, 1)
         );
-        updateDTO.setPhone("+1234567890123456789");
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isBadRequest()).
@@ -413,9 +646,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                null
         );
-        updateDTO.setDob(null);
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isBadRequest()).
@@ -431,9 +663,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.now()
         );
-        updateDTO.setDob(LocalDate.now());
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isBadRequest()).
@@ -449,9 +680,8 @@ public class CustomerControllerTest {
                 "john@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.now().plusDays(1)
         );
-        updateDTO.setDob(LocalDate.now().plusDays(1));
 
         mockMvc.perform(put("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDTO))).
                 andExpect(status().isBadRequest()).
@@ -464,9 +694,7 @@ public class CustomerControllerTest {
 
     @Test
     void patch_ReturnUpdatedCustomer() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setFirstName("Johnny");
-        patchDTO.setEmail("johnny.doe@example.com");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO("Johnny", null, "johnny.doe@example.com", null, null, null);
 
         CustomerResponseDTO response = new CustomerResponseDTO(
                 customerId,
@@ -475,26 +703,26 @@ public class CustomerControllerTest {
                 "johnny.doe@example.com",
                 "123 Main St",
                 "+1234567890",
-                LocalDate.of(1990, 1, 1)
+                LocalDate.of(1990, 1, 1),
+                0L
         );
 
-        when(customerService.partialUpdateCustomer(customerId, patchDTO)).thenReturn(response);
+        when(customerService.partialUpdateCustomer(customerId, patchDTO, null)).thenReturn(response);
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(patchDTO)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(response.getId().toString()))
-                .andExpect(jsonPath("$.firstName").value(response.getFirstName()))
-                .andExpect(jsonPath("$.email").value(response.getEmail()));
+                .andExpect(jsonPath("$.id").value(response.id().toString()))
+                .andExpect(jsonPath("$.firstName").value(response.firstName()))
+                .andExpect(jsonPath("$.email").value(response.email()));
     }
 
     @Test
     void patch_NotFound() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setLastName("Johnny");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, "Johnny", null, null, null, null);
 
-        when(customerService.partialUpdateCustomer(customerId, patchDTO))
+        when(customerService.partialUpdateCustomer(customerId, patchDTO, null))
                 .thenThrow(new NoSuchCustomerExistsException("No such customer"));
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
@@ -505,10 +733,9 @@ public class CustomerControllerTest {
 
     @Test
     void patch_WhenEmailAlreadyExists_ReturnsConflict() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setEmail("johnny.bgood@example.com");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "johnny.bgood@example.com", null, null, null);
 
-        when(customerService.partialUpdateCustomer(customerId, patchDTO))
+        when(customerService.partialUpdateCustomer(customerId, patchDTO, null))
                 .thenThrow(new CustomerAlreadyExistsException("customer already exists"));
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
@@ -517,10 +744,19 @@ public class CustomerControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void patch_WhenEmailConstraintViolated_ReturnsConflict() throws Exception {
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "taken@example.com", null, null, null);
+
+        ConstraintViolationException violation = new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), "uk_customers_email");
+        when(customerService.partialUpdateCustomer(customerId, patchDTO, null)).thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+        mockMvc.perform(patch("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(patchDTO))).
+                andExpect(status().isConflict());
+    }
+
     @Test
     void patch_WhenInvalidEmail_thenBadRequest() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setEmail("not-an-email");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "not-an-email", null, null, null);
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -532,8 +768,7 @@ public class CustomerControllerTest {
 
     @Test
     void patch_WhenInvalidPhone_thenBadRequest() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setPhone("+1234567890123456789");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+1234567890123456789", null);
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -545,8 +780,7 @@ public class CustomerControllerTest {
 
     @Test
     void patch_WhenFutureDOB_thenBadRequest() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setDob(LocalDate.now().plusDays(1));
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, null, LocalDate.now().plusDays(1));
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -558,8 +792,7 @@ public class CustomerControllerTest {
 
     @Test
     void patch_WhenPresentDOB_thenBadRequest() throws Exception {
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setDob(LocalDate.now());
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, null, LocalDate.now());
 
         mockMvc.perform(patch("/api/v1/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(patchDTO))).
                 andExpect(status().isBadRequest()).
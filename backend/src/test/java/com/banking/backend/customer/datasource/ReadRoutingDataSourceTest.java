@@ -0,0 +1,63 @@
+package com.banking.backend.customer.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+
+@ExtendWith(MockitoExtension.class)
+public class ReadRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private ReadRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    @Test
+    void readsGoToReplicaWhileLagIsTolerable() throws Exception {
+        when(lagMonitor.withinTolerance()).thenReturn(true);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaLags() throws Exception {
+        when(lagMonitor.withinTolerance()).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void pinnedReadsGoToPrimaryWhateverTheLag() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, ReadRouting.onPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }));
+    }
+}
@@ -0,0 +1,38 @@
+package com.banking.backend.customer.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Duration;
+
+
+public class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter("jdbc:postgresql://replica:5432/bankapp", Duration.ofSeconds(5));
+
+    private Cookie cookieAfter(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response.getCookie(ReadYourWritesFilter.COOKIE);
+    }
+
+    // The batch routes are siblings of /api/v1/customers, not children, so the cookie has to cover /api/v1
+    @Test
+    void batchWrite_setsCookieSentToEveryCustomerRoute() throws Exception {
+        Cookie cookie = cookieAfter("POST", "/api/v1/customers:batch");
+
+        assertNotNull(cookie);
+        assertEquals("/api/v1", cookie.getPath());
+        assertEquals(5, cookie.getMaxAge());
+    }
+
+    @Test
+    void read_setsNoCookie() throws Exception {
+        assertNull(cookieAfter("GET", "/api/v1/customers"));
+    }
+}
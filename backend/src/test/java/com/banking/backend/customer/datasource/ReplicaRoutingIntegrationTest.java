@@ -0,0 +1,59 @@
+package com.banking.backend.customer.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+// Needs the primary and replica from docker-compose.dev.yml, e.g.
+// CUSTOMER_DATASOURCE_REPLICA_URL=jdbc:postgresql://localhost:5433/bankapp_test ./gradlew test
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "CUSTOMER_DATASOURCE_REPLICA_URL", matches = ".+")
+public class ReplicaRoutingIntegrationTest {
+
+    private static final String IN_RECOVERY = "select pg_is_in_recovery()";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeEach
+    void awaitReplica() throws InterruptedException {
+        for (int i = 0; i < 100 && !lagMonitor.withinTolerance(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(lagMonitor.withinTolerance(), "replica is not replicating within max-lag");
+    }
+
+    @Test
+    void readOnlyTransactionsRunOnReplica() {
+        assertEquals(Boolean.TRUE, inTransaction(true));
+    }
+
+    @Test
+    void readWriteTransactionsRunOnPrimary() {
+        assertEquals(Boolean.FALSE, inTransaction(false));
+    }
+
+    @Test
+    void pinnedReadOnlyTransactionsRunOnPrimary() {
+        assertFalse(ReadRouting.onPrimary(() -> inTransaction(true)));
+    }
+
+    private Boolean inTransaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject(IN_RECOVERY, Boolean.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.banking.backend.customer.idempotency;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import com.banking.backend.customer.model.IdempotencyRecord;
+import com.banking.backend.customer.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class IdempotencyStoreTest {
+
+    private static final int DUPLICATES = 16;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final CustomerCreateDTO request = new CustomerCreateDTO("John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+    private final CustomerResponseDTO response = new CustomerResponseDTO(UUID.randomUUID(), "John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1), 0L);
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(1_000, Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void concurrentDuplicates_shareOneCreate() throws Exception {
+        AtomicInteger creates = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        try {
+            List<Future<CustomerResponseDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < DUPLICATES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return store.execute("retry-1", request, () -> {
+                        creates.incrementAndGet();
+                        try {
+                            // Hold the first create open so the others arrive while it is in flight
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return response;
+                    });
+                }));
+            }
+            start.countDown();
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<CustomerResponseDTO> future : futures) {
+                assertEquals(response, future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void failedCreate_releasesKeyForTheNextRetry() {
+        assertThrows(CustomerAlreadyExistsException.class, () -> store.execute("retry-2", request, () -> {
+            throw new CustomerAlreadyExistsException("Email already used by another customer");
+        }));
+
+        assertEquals(response, store.execute("retry-2", request, () -> response));
+    }
+
+    @Test
+    void withoutKey_alwaysRuns() {
+        AtomicInteger creates = new AtomicInteger();
+
+        store.execute(null, request, () -> {
+            creates.incrementAndGet();
+            return response;
+        });
+        store.execute(null, request, () -> {
+            creates.incrementAndGet();
+            return response;
+        });
+
+        assertEquals(2, creates.get());
+    }
+
+    @Test
+    void persistent_keyClaimedElsewhere_replaysRecordedResponse() throws Exception {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        ReflectionTestUtils.setField(store, "persistent", true);
+        ReflectionTestUtils.setField(store, "recordRepository", repository);
+        ReflectionTestUtils.setField(store, "transactionManager", mock(PlatformTransactionManager.class));
+        String fingerprint = store.fingerprint(request);
+        when(repository.claim(anyString(), anyString(), any(Instant.class), any(Instant.class))).thenReturn(0);
+        when(repository.findById("retry-3")).thenReturn(Optional.of(new IdempotencyRecord("retry-3", fingerprint, objectMapper.writeValueAsString(response), Instant.now())));
+
+        CustomerResponseDTO replayed = store.execute("retry-3", request, () -> {
+            throw new AssertionError("a claimed key must not create again");
+        });
+
+        assertEquals(response, replayed);
+        verify(repository, never()).complete(anyString(), anyString());
+    }
+}
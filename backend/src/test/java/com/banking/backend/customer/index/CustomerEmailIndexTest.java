@@ -0,0 +1,186 @@
+package com.banking.backend.customer.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+public class CustomerEmailIndexTest {
+
+    private static final int WRITERS = 16;
+    private static final int CUSTOMERS_PER_WRITER = 4;
+    private static final int EMAILS = 48;
+    private static final int OPERATIONS_PER_WRITER = 20_000;
+
+    private CustomerEmailIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerEmailIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "ready", true);
+    }
+
+    @Test
+    void put_movesEmailAndReleasesPreviousOne() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "old@example.com");
+        index.put(id, "new@example.com");
+
+        assertFalse(index.mayBeTaken("old@example.com", null));
+        assertTrue(index.mayBeTaken("new@example.com", null));
+        assertFalse(index.mayBeTaken("new@example.com", id));
+    }
+
+    @Test
+    void remove_doesNotReleaseEmailClaimedByAnotherCustomer() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.put(first, "shared@example.com");
+        // second committed after first moved away, but first's change is applied late
+        index.put(second, "shared@example.com");
+        index.remove(first);
+
+        assertTrue(index.mayBeTaken("shared@example.com", first));
+    }
+
+    // Never loaded, so never ready: the unique constraint is left to catch duplicates
+    @Test
+    void disabled_neverReportsEmailTaken() {
+        CustomerEmailIndex disabled = new CustomerEmailIndex();
+        ReflectionTestUtils.setField(disabled, "enabled", false);
+        disabled.load();
+        disabled.put(UUID.randomUUID(), "taken@example.com");
+
+        assertFalse(disabled.isReady());
+        assertFalse(disabled.mayBeTaken("taken@example.com", null));
+        assertFalse(disabled.mayBeTaken("free@example.com", UUID.randomUUID()));
+    }
+
+    @Test
+    void bloom_normalizesEmailsAndKeepsRemovedOnesUntilRebuild() {
+        ReflectionTestUtils.setField(index, "membership", new BloomEmailMembership(1_000, 0.01, 0.2));
+        UUID id = UUID.randomUUID();
+        index.put(id, "Jane.Doe@Example.com");
+
+        assertTrue(index.mayBeTaken(" jane.doe@example.com", null));
+        assertFalse(index.mayBeTaken("someone.else@example.com", null));
+
+        index.remove(id);
+        assertTrue(index.mayBeTaken("jane.doe@example.com", null));
+    }
+
+    @Test
+    void bloom_countsChangedEmailsAsStale() {
+        BloomEmailMembership bloom = new BloomEmailMembership(1_000, 0.01, 0.2);
+        UUID id = UUID.randomUUID();
+        bloom.put(id, "v0@example.com", null);
+        for (int i = 1; i <= 1000; i++) {
+            bloom.put(id, "v" + i + "@example.com", "v" + (i - 1) + "@example.com");
+        }
+        // Only the case differs: the filter holds one entry for both
+        bloom.put(id, "V1000@example.com", "v1000@example.com");
+        assertFalse(bloom.wantsRebuild());
+
+        bloom.put(id, "v1001@example.com", "v1000@example.com");
+        assertTrue(bloom.wantsRebuild());
+    }
+
+    @Test
+    void notReady_treatsEveryEmailAsPossiblyTaken() {
+        ReflectionTestUtils.setField(index, "ready", false);
+
+        assertTrue(index.mayBeTaken("anyone@example.com", null));
+    }
+
+    // Writers race over a small pool of emails. A lock stands in for the database and its unique constraint;
+    // the index is updated after "commit", outside the lock, exactly as the after-commit hook does. Each customer
+    // is only ever written by one thread, as with requests serialized on a row lock.
+    @Test
+    void concurrentWriters_indexMatchesCommittedState() throws Exception {
+        Map<String, UUID> database = new HashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                futures.add(executor.submit(() -> {
+                    UUID[] customers = new UUID[CUSTOMERS_PER_WRITER];
+                    String[] held = new String[CUSTOMERS_PER_WRITER];
+                    for (int c = 0; c < CUSTOMERS_PER_WRITER; c++) {
+                        customers[c] = UUID.randomUUID();
+                    }
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int op = 0; op < OPERATIONS_PER_WRITER; op++) {
+                        int c = random.nextInt(CUSTOMERS_PER_WRITER);
+                        String email = "pool" + random.nextInt(EMAILS) + "@example.com";
+                        if (held[c] != null && random.nextInt(4) == 0) {
+                            synchronized (database) {
+                                database.remove(held[c]);
+                            }
+                            held[c] = null;
+                            index.remove(customers[c]);
+                            continue;
+                        }
+                        if (index.mayBeTaken(email, customers[c]) && ownedByOther(database, email, customers[c])) {
+                            continue;
+                        }
+                        boolean committed;
+                        synchronized (database) {
+                            committed = !ownedByOther(database, email, customers[c]);
+                            if (committed) {
+                                if (held[c] != null) {
+                                    database.remove(held[c]);
+                                }
+                                database.put(email, customers[c]);
+                            }
+                        }
+                        if (committed) {
+                            held[c] = email;
+                            index.put(customers[c], email);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int e = 0; e < EMAILS; e++) {
+            String email = "pool" + e + "@example.com";
+            UUID owner = database.get(email);
+            assertEquals(owner != null, index.mayBeTaken(email, null), email);
+            if (owner != null) {
+                assertFalse(index.mayBeTaken(email, owner), email);
+            }
+        }
+    }
+
+    private static boolean ownedByOther(Map<String, UUID> database, String email, UUID self) {
+        synchronized (database) {
+            UUID owner = database.get(email);
+            return owner != null && !owner.equals(self);
+        }
+    }
+}
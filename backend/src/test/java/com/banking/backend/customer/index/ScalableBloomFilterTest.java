@@ -0,0 +1,58 @@
+package com.banking.backend.customer.index;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class ScalableBloomFilterTest {
+
+    @Test
+    void add_neverProducesFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("customer" + i + "@example.com");
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain("customer" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void growsStagesAndKeepsFalsePositiveRateUnderTarget() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("member" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("stranger" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(filter.stageCount() > 1);
+        assertTrue(falsePositives / (double) probes < 0.01, "false-positive rate " + falsePositives / (double) probes);
+        assertTrue(filter.estimatedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    void add_reportsRepeatsAndCountsDistinctValues() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        assertTrue(filter.add("a@example.com"));
+        assertFalse(filter.add("a@example.com"));
+        assertEquals(1, filter.count());
+    }
+
+    @Test
+    void memoryIsAboutTenBitsPerValueAtOnePercent() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000_000, 0.01);
+
+        // The first stage targets half the rate, 0.5%, which is about 11 bits per value
+        assertTrue(filter.sizeInBytes() < 1_000_000 * 12 / 8);
+    }
+}
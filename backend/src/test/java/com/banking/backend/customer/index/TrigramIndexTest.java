@@ -0,0 +1,103 @@
+package com.banking.backend.customer.index;
+
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+
+public class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    private CustomerResponseDTO customer(String firstName, String lastName, String email, String address) {
+        return new CustomerResponseDTO(UUID.randomUUID(), firstName, lastName, email, address, "+1234567890", LocalDate.of(1990, 1, 1), 0L);
+    }
+
+    @Test
+    void search_toleratesTyposAndRanksClosestFirst() {
+        CustomerResponseDTO johnSmith = customer("John", "Smith", "john.smith@example.com", "1 High St");
+        CustomerResponseDTO janeSmythe = customer("Jane", "Smythe", "jane@example.com", "2 Low Rd");
+        CustomerResponseDTO bob = customer("Bob", "Brown", "bob@example.com", "3 Oak Ave");
+        index.put(johnSmith);
+        index.put(janeSmythe);
+        index.put(bob);
+
+        List<TrigramIndex.Match> matches = index.search("Jon Smtih", 10, 0.3);
+
+        assertEquals(johnSmith, matches.get(0).customer());
+        assertTrue(matches.stream().noneMatch(match -> match.customer().equals(bob)));
+    }
+
+    @Test
+    void search_ignoresCaseAndAccents() {
+        CustomerResponseDTO zoe = customer("Zoë", "Müller", "zoe@example.com", "Hauptstraße 1");
+        index.put(zoe);
+
+        assertEquals(zoe, index.search("ZOE MULLER", 5, 0.5).get(0).customer());
+    }
+
+    @Test
+    void put_replacesPreviousVersion() {
+        CustomerResponseDTO before = customer("John", "Smith", "john@example.com", "1 High St");
+        CustomerResponseDTO after = new CustomerResponseDTO(before.id(), "John", "Carpenter", "john@example.com", "1 High St", before.phone(), before.dob(), 1L);
+        index.put(before);
+        index.put(after);
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("Smith", 5, 0.6).isEmpty());
+        assertEquals(after, index.search("Carpenter", 5, 0.6).get(0).customer());
+    }
+
+    @Test
+    void remove_dropsCustomerFromResults() {
+        CustomerResponseDTO john = customer("John", "Smith", "john@example.com", "1 High St");
+        index.put(john);
+        index.remove(john.id());
+
+        assertEquals(0, index.size());
+        assertTrue(index.search("John Smith", 5, 0.1).isEmpty());
+    }
+
+    @Test
+    void search_limitsResults() {
+        for (int i = 0; i < 20; i++) {
+            index.put(customer("Anna", "Lee", "anna" + i + "@example.com", i + " Elm St"));
+        }
+
+        assertEquals(5, index.search("Anna Lee", 5, 0.3).size());
+    }
+
+    @Test
+    void compaction_keepsLiveCustomersSearchable() {
+        CustomerResponseDTO keeper = customer("Keep", "Me", "keep@example.com", "1 Stay St");
+        index.put(keeper);
+        for (int i = 0; i < 5000; i++) {
+            CustomerResponseDTO churn = customer("Temp", "Row" + i, "temp" + i + "@example.com", "Nowhere");
+            index.put(churn);
+            index.remove(churn.id());
+        }
+
+        assertEquals(1, index.size());
+        assertEquals(keeper, index.search("keep me", 5, 0.5).get(0).customer());
+    }
+
+    @Test
+    void search_commonGramsStillScoreButDoNotDriveTheScan() {
+        for (int i = 0; i < 3000; i++) {
+            index.put(customer("Anna", "Lee", "anna" + i + "@example.com", i + " Elm St"));
+        }
+        CustomerResponseDTO quinn = customer("Zed", "Quinn", "zed@example.com", "9 Elm St");
+        index.put(quinn);
+
+        List<TrigramIndex.Match> matches = index.search("Zed Quinn example", 5, 0.3);
+
+        assertEquals(quinn, matches.get(0).customer());
+        assertEquals(1.0, matches.get(0).score());
+        // Only common grams: the rarest of them still finds customers
+        assertEquals(5, index.search("example com", 5, 0.3).size());
+    }
+}
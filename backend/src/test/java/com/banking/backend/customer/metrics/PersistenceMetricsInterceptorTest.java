@@ -0,0 +1,65 @@
+package com.banking.backend.customer.metrics;
+
+import com.banking.backend.customer.controller.CustomerController;
+import com.banking.backend.customer.idempotency.IdempotencyStore;
+import com.banking.backend.customer.repository.IdempotencyRecordRepository;
+import com.banking.backend.customer.service.CustomerExportService;
+import com.banking.backend.customer.service.CustomerService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+
+
+@WebMvcTest(CustomerController.class)
+@Import({IdempotencyStore.class, SimpleMeterRegistry.class})
+public class PersistenceMetricsInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockitoBean
+    private CustomerService customerService;
+    @MockitoBean
+    private CustomerExportService customerExportService;
+    @MockitoBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    // The export streams from an executor thread and completes in an async dispatch
+    @Test
+    void export_recordsStatementsIssuedWhileStreaming() throws Exception {
+        doAnswer(invocation -> {
+            PersistenceStats.statementPrepared("select * from customers");
+            PersistenceStats.entityLoaded();
+            PersistenceStats.entityLoaded();
+            return 2L;
+        }).when(customerExportService).exportCustomers(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/customers/export")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("customer.request.jdbc.statements").tag("uri", "/api/v1/customers/export").summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+        assertEquals(2, meterRegistry.get("customer.request.entity.loads").tag("uri", "/api/v1/customers/export").summary().totalAmount());
+    }
+}
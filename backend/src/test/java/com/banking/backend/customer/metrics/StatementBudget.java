@@ -0,0 +1,47 @@
+package com.banking.backend.customer.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Test helper: runs a call inside a capturing PersistenceStats scope and fails when it issues more statements
+// than budgeted, or when the same SELECT is prepared repeatedly (the N+1 signature, since parameters are bound).
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    public static <T> T assertAtMost(int statements, Supplier<T> call) {
+        PersistenceStats stats = PersistenceStats.open(true);
+        T result;
+        try {
+            result = call.get();
+        } finally {
+            stats.close();
+        }
+        assertTrue(stats.getStatements() <= statements,
+                "Expected at most " + statements + " statements but got " + stats.getStatements() + ": " + stats.getSql());
+        assertNoRepeatedSelects(stats);
+        return result;
+    }
+
+    public static void assertAtMost(int statements, Runnable call) {
+        assertAtMost(statements, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public static void assertNoRepeatedSelects(PersistenceStats stats) {
+        Map<String, Integer> selects = new LinkedHashMap<>();
+        for (String sql : stats.getSql()) {
+            if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                selects.merge(sql, 1, Integer::sum);
+            }
+        }
+        selects.values().removeIf(count -> count < 2);
+        assertTrue(selects.isEmpty(), "Possible N+1: repeated SELECTs " + selects);
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.backend.customer.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HexFormat;
+import java.util.UUID;
+
+
+public class UuidV7GeneratorTest {
+
+    @Test
+    void next_setsVersionSevenAndRfcVariant() {
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void next_embedsCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        // The sub-millisecond counter may borrow ahead of the clock when many ids are generated at once
+        assertTrue(millis >= before && millis <= after + 1, "timestamp " + millis);
+    }
+
+    // PostgreSQL orders uuid values by their bytes, unsigned, which is the order of their hex strings
+    @Test
+    void next_increasesInPostgresOrderWithinOneMillisecond() {
+        String previous = hex(UuidV7Generator.next());
+        for (int i = 0; i < 100_000; i++) {
+            String current = hex(UuidV7Generator.next());
+            assertTrue(current.compareTo(previous) > 0, previous + " then " + current);
+            previous = current;
+        }
+    }
+
+    private static String hex(UUID id) {
+        return HexFormat.of().toHexDigits(id.getMostSignificantBits()) + HexFormat.of().toHexDigits(id.getLeastSignificantBits());
+    }
+}
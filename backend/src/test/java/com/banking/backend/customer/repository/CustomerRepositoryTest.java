@@ -1,17 +1,27 @@
 package com.banking.backend.customer.repository;
 
+import com.banking.backend.customer.dto.CustomerResponseDTO;
 import com.banking.backend.customer.model.Customer;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -23,6 +33,8 @@ public class CustomerRepositoryTest {
 
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
     private Customer baseCustomer;
 
@@ -70,6 +82,19 @@ public class CustomerRepositoryTest {
         assertTrue(found.isPresent());
     }
 
+    @Test
+    void testFindResponseById_projectsWithoutManagingEntity() {
+        Customer saved = customerRepository.saveAndFlush(baseCustomer);
+        entityManager.clear();
+
+        Optional<CustomerResponseDTO> found = customerRepository.findResponseById(saved.getId());
+
+        assertTrue(found.isPresent());
+        assertEquals("john.doe@example.com", found.get().email());
+        assertEquals(LocalDate.of(1990, 1, 1), found.get().dob());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     @Test
     void testExistEmail() {
         Customer saved = customerRepository.saveAndFlush(baseCustomer);
@@ -77,6 +102,30 @@ public class CustomerRepositoryTest {
         assertFalse(customerRepository.existsByEmail("nonexistent@example.com"));
     }
 
+    @Test
+    void testFindExistingEmails() {
+        customerRepository.saveAndFlush(baseCustomer);
+        Set<String> existing = customerRepository.findExistingEmails(List.of("john.doe@example.com", "nonexistent@example.com"));
+        assertEquals(Set.of("john.doe@example.com"), existing);
+    }
+
+    @Test
+    void testKeysetPagination() {
+        customerRepository.saveAndFlush(baseCustomer);
+        customerRepository.saveAndFlush(new Customer("Jane", "Doe", "jane.doe@example.com", "456 Side Ave", "+12345678902", LocalDate.of(1991, 1, 1)));
+        customerRepository.saveAndFlush(new Customer("Jim", "Doe", "jim.doe@example.com", "789 Oak St", "+12345678903", LocalDate.of(1992, 1, 1)));
+        // Reload from the database so cursor values carry the stored (microsecond) precision
+        entityManager.clear();
+
+        List<Customer> first = customerRepository.findFirstPage(PageRequest.of(0, 2));
+        assertEquals(2, first.size());
+
+        Customer last = first.get(1);
+        List<Customer> rest = customerRepository.findPageAfter(last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        assertEquals(1, rest.size());
+        assertFalse(first.stream().anyMatch(c -> c.getId().equals(rest.get(0).getId())));
+    }
+
     @Test
     void deleteCustomerById() {
         Customer saved = customerRepository.save(baseCustomer);
@@ -85,6 +134,28 @@ public class CustomerRepositoryTest {
         assertFalse(customerRepository.existsById(id));
     }
 
+    @Test
+    void duplicateEmail_ViolatesLookupTableConstraintAcrossPartitions() {
+        customerRepository.saveAndFlush(baseCustomer);
+        Customer duplicate = new Customer("Johnny", "Doe", "john.doe@example.com", "1 Other St", "+12345678909", LocalDate.of(1985, 5, 5));
+
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> customerRepository.saveAndFlush(duplicate));
 
+        ConstraintViolationException violation = assertInstanceOf(ConstraintViolationException.class, ex.getCause());
+        assertEquals(Customer.EMAIL_UNIQUE_CONSTRAINT, violation.getConstraintName());
+    }
 
+    @Test
+    void emailChangeAndDelete_KeepLookupTableInStep() {
+        Customer saved = customerRepository.saveAndFlush(baseCustomer);
+        saved.setEmail("john.new@example.com");
+        customerRepository.saveAndFlush(saved);
+
+        assertFalse(customerRepository.existsByEmail("john.doe@example.com"));
+        assertTrue(customerRepository.existsByEmail("john.new@example.com"));
+        assertFalse(customerRepository.existsByEmailAndIdNot("john.new@example.com", saved.getId()));
+
+        customerRepository.removeById(saved.getId());
+        assertFalse(customerRepository.existsByEmail("john.new@example.com"));
+    }
 }
@@ -0,0 +1,89 @@
+package com.banking.backend.customer.repository;
+
+import com.banking.backend.customer.dto.CustomerSearchCriteria;
+import com.banking.backend.customer.metrics.PersistenceStats;
+import com.banking.backend.customer.service.CustomerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+// Runs EXPLAIN on the SQL Hibernate actually generates for each search filter, against enough rows that the
+// planner would pick a sequential scan if the matching index were missing.
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CustomerSearchQueryPlanTest {
+
+    private static final int ROWS = 200_000;
+    private static final int LIMIT = 20;
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                insert into customers (id, first_name, last_name, email, address, phone, dob, created_at, updated_at)
+                select gen_random_uuid(), 'First' || i, 'Last' || (i % 20000), 'user' || i || '@domain' || (i % 5000) || '.com',
+                       i || ' Main St', '+1' || lpad(i::text, 10, '0'), date '1940-01-01' + (i % 25000),
+                       now() - (i || ' seconds')::interval, now()
+                from generate_series(1, ?) as i
+                """, ROWS);
+        jdbcTemplate.execute("analyze customers");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("truncate table customers");
+    }
+
+    @Test
+    void lastNamePrefix_usesIndex() {
+        assertNoSeqScan(new CustomerSearchCriteria("Last1234", null, null, null, null), "last1234%");
+    }
+
+    @Test
+    void phone_usesIndex() {
+        assertNoSeqScan(new CustomerSearchCriteria(null, "+10000012345", null, null, null), "+10000012345");
+    }
+
+    @Test
+    void dobRange_usesIndex() {
+        LocalDate from = LocalDate.of(1980, 1, 1);
+        LocalDate to = LocalDate.of(1980, 1, 3);
+        assertNoSeqScan(new CustomerSearchCriteria(null, null, from, to, null), from, to);
+    }
+
+    @Test
+    void emailDomain_usesIndex() {
+        assertNoSeqScan(new CustomerSearchCriteria(null, null, null, null, "domain4321.com"), "%@domain4321.com");
+    }
+
+    // filterParameters are the bind values of the WHERE clause in order; the page limit follows them
+    private void assertNoSeqScan(CustomerSearchCriteria criteria, Object... filterParameters) {
+        PersistenceStats stats = PersistenceStats.open(true);
+        try {
+            customerService.searchCustomers(criteria, null, LIMIT);
+        } finally {
+            stats.close();
+        }
+        assertEquals(1, stats.getSql().size(), stats.getSql().toString());
+
+        Object[] parameters = new Object[filterParameters.length + 1];
+        System.arraycopy(filterParameters, 0, parameters, 0, filterParameters.length);
+        parameters[filterParameters.length] = LIMIT + 1;
+
+        List<String> plan = jdbcTemplate.queryForList("explain " + stats.getSql().get(0), String.class, parameters);
+        assertFalse(plan.stream().anyMatch(line -> line.contains("Seq Scan")), String.join("\n", plan));
+    }
+}
@@ -0,0 +1,213 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.config.CustomerCacheConfig;
+import com.banking.backend.customer.datasource.ReadYourWrites;
+import com.banking.backend.customer.dto.CustomerBatchResultDTO;
+import com.banking.backend.customer.dto.CustomerBulkDeleteResultDTO;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.index.CustomerEmailIndex;
+import com.banking.backend.customer.index.CustomerLookupIndex;
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import com.banking.backend.customer.shard.CustomerShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerBatchServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
+    @Mock
+    private CustomerLookupIndex lookupIndex;
+    @Mock
+    private CustomerEmailIndex emailIndex;
+    // No replica configured: reads pass straight through
+    @Spy
+    private ReadYourWrites readYourWrites = new ReadYourWrites("", Duration.ofSeconds(5));
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private CustomerShards customerShards = new CustomerShards();
+    @InjectMocks
+    private CustomerBatchService customerBatchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(customerBatchService, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(customerBatchService, "flushEvery", 2);
+    }
+
+    private CustomerCreateDTO dto(String email) {
+        return new CustomerCreateDTO("John", "Doe", email, "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+    }
+
+    @Test
+    void createCustomers_reportsPerItemResults() {
+        CustomerCreateDTO invalid = dto("not-an-email");
+        when(emailIndex.mayBeTaken(any(), any())).thenReturn(true);
+        when(customerRepository.findExistingEmails(Set.of("a@example.com", "b@example.com", "c@example.com"))).thenReturn(Set.of("b@example.com"));
+
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(List.of(
+                dto("a@example.com"),
+                dto("b@example.com"),
+                invalid,
+                dto("a@example.com"),
+                dto("c@example.com")
+        ));
+
+        assertEquals(5, results.size());
+        assertEquals(CustomerBatchResultDTO.Status.CREATED, results.get(0).status());
+        assertEquals("a@example.com", results.get(0).customer().email());
+        assertEquals(CustomerBatchResultDTO.Status.DUPLICATE, results.get(1).status());
+        assertNull(results.get(1).customer());
+        assertEquals(CustomerBatchResultDTO.Status.INVALID, results.get(2).status());
+        assertEquals("Validation failed: Invalid email format.", results.get(2).message());
+        assertEquals(CustomerBatchResultDTO.Status.DUPLICATE, results.get(3).status());
+        assertEquals(CustomerBatchResultDTO.Status.CREATED, results.get(4).status());
+        assertEquals(4, results.get(4).index());
+
+        verify(customerRepository).findExistingEmails(any());
+        verify(entityManager, times(2)).persist(any(Customer.class));
+    }
+
+    @Test
+    void createCustomers_emailsUnknownToIndex_skipExistenceQuery() {
+        when(emailIndex.mayBeTaken("a@example.com", null)).thenReturn(false);
+        when(emailIndex.mayBeTaken("b@example.com", null)).thenReturn(true);
+        when(customerRepository.findExistingEmails(Set.of("b@example.com"))).thenReturn(Set.of("b@example.com"));
+
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(List.of(dto("a@example.com"), dto("b@example.com")));
+
+        assertEquals(CustomerBatchResultDTO.Status.CREATED, results.get(0).status());
+        assertEquals(CustomerBatchResultDTO.Status.DUPLICATE, results.get(1).status());
+        verify(customerRepository).findExistingEmails(Set.of("b@example.com"));
+    }
+
+    @Test
+    void createCustomers_flushesInChunks() {
+        customerBatchService.createCustomers(List.of(dto("a@example.com"), dto("b@example.com"), dto("c@example.com")));
+
+        verify(customerRepository, never()).findExistingEmails(any());
+        verify(entityManager, times(3)).persist(any(Customer.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void createCustomers_emailTakenAfterCheck_onlyClashingItemIsDuplicate() {
+        ConstraintViolationException clash = new ConstraintViolationException("duplicate key", new SQLException(), Customer.EMAIL_UNIQUE_CONSTRAINT);
+        // The chunk's batch fails, then its rows are retried one by one and only the second clashes
+        doThrow(clash).doNothing().doThrow(clash).doNothing().when(entityManager).flush();
+
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(List.of(dto("a@example.com"), dto("b@example.com"), dto("c@example.com")));
+
+        assertEquals(CustomerBatchResultDTO.Status.CREATED, results.get(0).status());
+        assertEquals(CustomerBatchResultDTO.Status.DUPLICATE, results.get(1).status());
+        assertEquals(CustomerBatchResultDTO.Status.CREATED, results.get(2).status());
+        verify(entityManager, times(5)).persist(any(Customer.class));
+        verify(lookupIndex, times(2)).put(any());
+    }
+
+    @Test
+    void createCustomers_chunkFailsForOtherReason_reportsItemsFailed() {
+        doThrow(new IllegalStateException("connection reset")).when(entityManager).flush();
+
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(List.of(dto("a@example.com")));
+
+        assertEquals(CustomerBatchResultDTO.Status.FAILED, results.get(0).status());
+        assertNull(results.get(0).customer());
+    }
+
+    @Test
+    void createCustomers_allInvalid_skipsDatabase() {
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(List.of(dto("not-an-email")));
+
+        assertEquals(CustomerBatchResultDTO.Status.INVALID, results.get(0).status());
+        verify(customerRepository, never()).findExistingEmails(any());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void createCustomers_tooLarge_throwsBadRequest() {
+        ReflectionTestUtils.setField(customerBatchService, "maxBatchSize", 1);
+
+        assertThrows(ResponseStatusException.class, () -> customerBatchService.createCustomers(List.of(dto("a@example.com"), dto("b@example.com"))));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void deleteCustomers_singleStatementForDistinctIds() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(customerRepository.removeAllByIdIn(Set.of(first, second))).thenReturn(1);
+        when(cacheManager.getCache(CustomerCacheConfig.CUSTOMERS_CACHE)).thenReturn(cache);
+
+        CustomerBulkDeleteResultDTO result = customerBatchService.deleteCustomers(List.of(first, second, first));
+
+        assertEquals(2, result.requested());
+        assertEquals(1, result.deleted());
+        verify(customerRepository, times(1)).removeAllByIdIn(any());
+        verify(cache).evict(first);
+        verify(cache).evict(second);
+        verify(lookupIndex).remove(first);
+        verify(lookupIndex).remove(second);
+        verify(emailIndex).remove(first);
+        verify(emailIndex).remove(second);
+    }
+
+    @Test
+    void deleteCustomers_empty_skipsDatabase() {
+        CustomerBulkDeleteResultDTO result = customerBatchService.deleteCustomers(List.of());
+
+        assertEquals(0, result.deleted());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void deleteCustomers_tooLarge_throwsBadRequest() {
+        ReflectionTestUtils.setField(customerBatchService, "maxBatchSize", 1);
+
+        assertThrows(ResponseStatusException.class, () -> customerBatchService.deleteCustomers(List.of(UUID.randomUUID(), UUID.randomUUID())));
+        verifyNoInteractions(customerRepository);
+    }
+}
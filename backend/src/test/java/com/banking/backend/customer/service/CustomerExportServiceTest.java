@@ -0,0 +1,77 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManager;
+import com.banking.backend.customer.shard.CustomerShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerExportServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    @Spy
+    private CustomerShards customerShards = new CustomerShards();
+    @InjectMocks
+    private CustomerExportService customerExportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(customerExportService, "flushEvery", 1);
+    }
+
+    @Test
+    void exportCustomers_writesOneLinePerCustomerAndDetaches() throws Exception {
+        Customer john = new Customer(UUID.randomUUID(), "John", "Doe", "john@example.com", "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+        Customer jane = new Customer(UUID.randomUUID(), "Jane", "Doe", "jane@example.com", "456 Elm St", "+1987654321", LocalDate.of(1991, 2, 2));
+        when(customerRepository.streamAll()).thenReturn(Stream.of(john, jane));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = customerExportService.exportCustomers(out);
+
+        String expected = objectMapper.writeValueAsString(CustomerMapper.mapToResponseDTO(john)) + "\n"
+                + objectMapper.writeValueAsString(CustomerMapper.mapToResponseDTO(jane)) + "\n";
+        assertEquals(2, written);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("john@example.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals("1991-02-02", objectMapper.readTree(lines[1]).get("dob").asText());
+        verify(entityManager).detach(john);
+        verify(entityManager).detach(jane);
+    }
+
+    @Test
+    void exportCustomers_emptyTable_writesNothing() throws Exception {
+        when(customerRepository.streamAll()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, customerExportService.exportCustomers(out));
+        assertEquals(0, out.size());
+    }
+}
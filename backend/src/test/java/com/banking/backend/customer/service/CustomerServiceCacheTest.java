@@ -0,0 +1,117 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.config.CustomerCacheConfig;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerPatchDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.LocalDate;
+
+
+@SpringBootTest
+public class CustomerServiceCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cache cache;
+    private CustomerResponseDTO created;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(CustomerCacheConfig.CUSTOMERS_CACHE);
+        created = customerService.createCustomer(new CustomerCreateDTO("John", "Doe", "john.cache@example.com", "123 Main St", "+12345678901", LocalDate.of(1990, 1, 1)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        customerRepository.deleteAll();
+        cache.clear();
+    }
+
+    @Test
+    void getCustomerById_populatesCache() {
+        assertNull(cache.get(created.id()));
+
+        customerService.getCustomerById(created.id());
+
+        assertNotNull(cache.get(created.id()));
+    }
+
+    @Test
+    void partialUpdate_replacesEntryAfterCommit() {
+        customerService.getCustomerById(created.id());
+
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+19999999999", null);
+        customerService.partialUpdateCustomer(created.id(), patchDTO, null);
+
+        Cache.ValueWrapper cached = cache.get(created.id());
+        assertNotNull(cached);
+        assertEquals("+19999999999", ((CustomerResponseDTO) cached.get()).phone());
+        assertEquals("+19999999999", customerService.getCustomerById(created.id()).phone());
+    }
+
+    @Test
+    void lateMissWithOlderVersion_doesNotOverwriteCommittedEntry() {
+        CustomerResponseDTO stale = customerService.getCustomerById(created.id());
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+19999999999", null);
+        customerService.partialUpdateCustomer(created.id(), patchDTO, null);
+
+        // A concurrent miss that read the row before the update committed finishes afterwards
+        cache.put(created.id(), stale);
+
+        assertEquals("+19999999999", ((CustomerResponseDTO) cache.get(created.id()).get()).phone());
+    }
+
+    @Test
+    void lateMissAfterDelete_doesNotResurrectEntry() {
+        CustomerResponseDTO stale = customerService.getCustomerById(created.id());
+        customerService.deleteCustomerById(created.id());
+
+        cache.put(created.id(), stale);
+
+        assertNull(cache.get(created.id()));
+    }
+
+    @Test
+    void rolledBackUpdate_keepsCachedEntry() {
+        customerService.getCustomerById(created.id());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+19999999999", null);
+            customerService.partialUpdateCustomer(created.id(), patchDTO, null);
+            status.setRollbackOnly();
+        });
+
+        Cache.ValueWrapper cached = cache.get(created.id());
+        assertNotNull(cached);
+        assertEquals("+12345678901", ((CustomerResponseDTO) cached.get()).phone());
+        assertEquals("+12345678901", customerRepository.findById(created.id()).orElseThrow().getPhone());
+    }
+
+    @Test
+    void delete_evictsEntry() {
+        customerService.getCustomerById(created.id());
+
+        customerService.deleteCustomerById(created.id());
+
+        assertNull(cache.get(created.id()));
+    }
+}
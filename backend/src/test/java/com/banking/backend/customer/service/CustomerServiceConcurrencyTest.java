@@ -0,0 +1,176 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerPatchDTO;
+import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import com.banking.backend.customer.exception.CustomerVersionMismatchException;
+import com.banking.backend.customer.index.CustomerEmailIndex;
+import com.banking.backend.customer.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+@SpringBootTest
+public class CustomerServiceConcurrencyTest {
+
+    private static final int WRITERS = 16;
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CustomerEmailIndex emailIndex;
+
+    @BeforeEach
+    void awaitEmailIndex() throws InterruptedException {
+        while (!emailIndex.isReady()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        customerRepository.findAll().forEach(customer -> customerService.deleteCustomerById(customer.getId()));
+    }
+
+    @Test
+    void concurrentCreatesWithSameEmail_onlyOneSucceeds() throws Exception {
+        String email = "race@example.com";
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                String phone = "+1555000" + String.format("%04d", i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        customerService.createCustomer(new CustomerCreateDTO("John", "Doe", email, "123 Main St", phone, LocalDate.of(1990, 1, 1)));
+                        created.incrementAndGet();
+                    } catch (DataIntegrityViolationException | CustomerAlreadyExistsException ex) {
+                        // Losers hit the unique constraint, or the email index once the winner has committed
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(WRITERS - 1, rejected.get());
+        assertEquals(Set.of(email), customerRepository.findExistingEmails(List.of(email)));
+        assertEquals(1, customerRepository.count());
+        assertIndexAgreesWithDatabase(email);
+    }
+
+    @Test
+    void concurrentEmailChanges_onlyOneSucceeds() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            ids.add(customerService.createCustomer(new CustomerCreateDTO("John", "Doe", "writer" + i + "@example.com", "123 Main St", "+1555000" + String.format("%04d", i), LocalDate.of(1990, 1, 1))).id());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger changed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (UUID id : ids) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "contested@example.com", null, null, null);
+                        customerService.partialUpdateCustomer(id, patchDTO, null);
+                        changed.incrementAndGet();
+                    } catch (DataIntegrityViolationException | CustomerAlreadyExistsException ex) {
+                        // expected for every writer but one
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, changed.get());
+        assertTrue(customerRepository.existsByEmail("contested@example.com"));
+        assertIndexAgreesWithDatabase("contested@example.com");
+    }
+
+    @Test
+    void concurrentPatchesWithSameIfMatch_onlyOneSucceeds() throws Exception {
+        UUID id = customerService.createCustomer(new CustomerCreateDTO("John", "Doe", "versioned@example.com", "123 Main St", "+15550000000", LocalDate.of(1990, 1, 1))).id();
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger preconditionFailed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                String address = i + " Contested St";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        customerService.partialUpdateCustomer(id, new CustomerPatchDTO(null, null, null, address, null, null), 0L);
+                        applied.incrementAndGet();
+                    } catch (CustomerVersionMismatchException ex) {
+                        // Either read the winner's version, or lost the race at UPDATE time
+                        preconditionFailed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, applied.get());
+        assertEquals(WRITERS - 1, preconditionFailed.get());
+        assertEquals(1L, customerService.getCustomerById(id).version());
+    }
+
+    private void assertIndexAgreesWithDatabase(String email) {
+        UUID owner = customerRepository.findAll().stream()
+                .filter(customer -> customer.getEmail().equals(email))
+                .findFirst().orElseThrow().getId();
+        assertTrue(emailIndex.mayBeTaken(email, null));
+        assertFalse(emailIndex.mayBeTaken(email, owner));
+    }
+}
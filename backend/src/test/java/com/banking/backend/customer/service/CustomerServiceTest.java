@@ -1,26 +1,45 @@
 package com.banking.backend.customer.service;
 
+import com.banking.backend.customer.datasource.ReadYourWrites;
 import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerLookupMatchDTO;
+import com.banking.backend.customer.dto.CustomerPageDTO;
 import com.banking.backend.customer.dto.CustomerPatchDTO;
 import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.dto.CustomerSearchCriteria;
 import com.banking.backend.customer.dto.CustomerUpdateDTO;
 import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import com.banking.backend.customer.exception.CustomerVersionMismatchException;
 import com.banking.backend.customer.exception.NoSuchCustomerExistsException;
+import com.banking.backend.customer.index.CustomerEmailIndex;
+import com.banking.backend.customer.index.CustomerLookupIndex;
 import com.banking.backend.customer.model.Customer;
 import com.banking.backend.customer.repository.CustomerRepository;
+import com.banking.backend.customer.shard.CustomerShards;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +51,15 @@ public class CustomerServiceTest {
 
     @Mock
     private CustomerRepository customerRepository;
+    @Mock
+    private CustomerLookupIndex lookupIndex;
+    @Mock
+    private CustomerEmailIndex emailIndex;
+    // No replica configured: reads pass straight through
+    @Spy
+    private ReadYourWrites readYourWrites = new ReadYourWrites("", Duration.ofSeconds(5));
+    @Spy
+    private CustomerShards customerShards = new CustomerShards();
     @InjectMocks
     private CustomerService customerService;
 
@@ -73,107 +101,257 @@ public class CustomerServiceTest {
 
     @Test
     void createCustomer_success() {
-        when(customerRepository.existsByEmail(createDTO.getEmail())).thenReturn(false);
-        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(customer);
 
         CustomerResponseDTO result = customerService.createCustomer(createDTO);
 
         assertNotNull(result);
-        assertEquals(customer.getEmail(),result.getEmail());
-        verify(customerRepository).save(any(Customer.class));
+        assertEquals(customer.getEmail(),result.email());
+        verify(customerRepository).saveAndFlush(any(Customer.class));
+        verify(customerRepository, never()).existsByEmail(any());
+        verify(lookupIndex).put(result);
+        verify(emailIndex).put(customer.getId(), customer.getEmail());
+    }
+
+    @Test
+    void createCustomer_emailIndexHit_confirmedByDatabase_throwsConflict() {
+        when(emailIndex.mayBeTaken(createDTO.email(), null)).thenReturn(true);
+        when(customerRepository.existsByEmail(createDTO.email())).thenReturn(true);
+
+        assertThrows(CustomerAlreadyExistsException.class, () -> customerService.createCustomer(createDTO));
+        verify(customerRepository, never()).saveAndFlush(any(Customer.class));
+    }
+
+    @Test
+    void createCustomer_staleEmailIndexHit_inserts() {
+        when(emailIndex.mayBeTaken(createDTO.email(), null)).thenReturn(true);
+        when(customerRepository.existsByEmail(createDTO.email())).thenReturn(false);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(customer);
+
+        customerService.createCustomer(createDTO);
+
+        verify(customerRepository).saveAndFlush(any(Customer.class));
     }
 
     @Test
-    void createCustomer_emailExists_throwsException() {
-        when(customerRepository.existsByEmail(createDTO.getEmail())).thenReturn(true);
-        assertThrows(CustomerAlreadyExistsException.class, ()->customerService.createCustomer(createDTO));
-        verify(customerRepository, never()).save(any(Customer.class));
+    void createCustomer_emailExists_propagatesConstraintViolation() {
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(new DataIntegrityViolationException("uk_customers_email"));
+        assertThrows(DataIntegrityViolationException.class, ()->customerService.createCustomer(createDTO));
+        verify(lookupIndex, never()).put(any());
     }
 
     @Test
     void getCustomerById_success() {
-        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        when(customerRepository.findResponseById(customer.getId())).thenReturn(Optional.of(CustomerMapper.mapToResponseDTO(customer)));
         CustomerResponseDTO result = customerService.getCustomerById(customer.getId());
 
         assertNotNull(result);
 
-        assertEquals(customer.getId(),result.getId());
-        verify(customerRepository).findById(customer.getId());
+        assertEquals(customer.getId(),result.id());
+        verify(customerRepository).findResponseById(customer.getId());
+        verify(customerRepository, never()).findById(any());
     }
 
     @Test
     void getCustomerById_notFound_throwsException() {
         UUID id = UUID.randomUUID();
-        when(customerRepository.findById(id)).thenReturn(Optional.empty());
+        when(customerRepository.findResponseById(id)).thenReturn(Optional.empty());
         assertThrows(NoSuchCustomerExistsException.class, () -> customerService.getCustomerById(id));
     }
 
     @Test
     void getAllCustomers_success() {
-        List<Customer> customers = List.of(customer);
-        when(customerRepository.findAll()).thenReturn(customers);
+        List<CustomerResponseDTO> customers = List.of(CustomerMapper.mapToResponseDTO(customer));
+        when(customerRepository.findAllResponses()).thenReturn(customers);
 
         List<CustomerResponseDTO> result = customerService.getAllCustomers();
 
         assertEquals(1, result.size());
-        assertEquals(customer.getId(), result.get(0).getId());
-        assertEquals(customer.getEmail(), result.get(0).getEmail());
+        assertEquals(customer.getId(), result.get(0).id());
+        assertEquals(customer.getEmail(), result.get(0).email());
+    }
+
+    @Test
+    void getCustomerPage_firstPage_returnsCursorWhenMoreRows() {
+        ReflectionTestUtils.setField(customerService, "maxPageSize", 100);
+        Customer second = new Customer(UUID.randomUUID(), "Jane", "Doe", "jane@example.com", "456 Elm St", "+1987654321", LocalDate.of(1991, 2, 2));
+        ReflectionTestUtils.setField(customer, "createdAt", Instant.parse("2024-01-01T00:00:00Z"));
+        when(customerRepository.findFirstPage(PageRequest.of(0, 2))).thenReturn(List.of(customer, second));
+
+        CustomerPageDTO result = customerService.getCustomerPage(null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(customer.getId(), result.getItems().get(0).id());
+        CustomerCursor next = CustomerCursor.decode(result.getNextCursor());
+        assertEquals(customer.getId(), next.getId());
+        assertEquals(customer.getCreatedAt(), next.getCreatedAt());
+    }
+
+    @Test
+    void getCustomerPage_lastPage_hasNoCursor() {
+        ReflectionTestUtils.setField(customerService, "maxPageSize", 100);
+        CustomerCursor cursor = new CustomerCursor(Instant.parse("2024-01-01T00:00:00Z"), UUID.randomUUID());
+        when(customerRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 11))).thenReturn(List.of(customer));
+
+        CustomerPageDTO result = customerService.getCustomerPage(cursor.encode(), 10);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getCustomerPage_clampsLimitToMaxPageSize() {
+        ReflectionTestUtils.setField(customerService, "maxPageSize", 5);
+        when(customerRepository.findFirstPage(PageRequest.of(0, 6))).thenReturn(List.of());
+
+        CustomerPageDTO result = customerService.getCustomerPage(null, 500);
+
+        assertEquals(0, result.getItems().size());
+        verify(customerRepository).findFirstPage(PageRequest.of(0, 6));
+    }
+
+    @Test
+    void getCustomerPage_invalidCursor_throwsBadRequest() {
+        ReflectionTestUtils.setField(customerService, "maxPageSize", 100);
+        assertThrows(ResponseStatusException.class, () -> customerService.getCustomerPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void searchCustomers_returnsPageFromSpecification() {
+        ReflectionTestUtils.setField(customerService, "maxPageSize", 100);
+        when(customerRepository.findBy(any(Specification.class), any())).thenReturn(List.of(customer));
+
+        CustomerPageDTO result = customerService.searchCustomers(new CustomerSearchCriteria("Do", null, null, null, null), null, 10);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchCustomers_withoutFilters_throwsBadRequest() {
+        assertThrows(ResponseStatusException.class, () -> customerService.searchCustomers(new CustomerSearchCriteria(null, " ", null, null, null), null, 10));
+        verify(customerRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void searchCustomers_invertedDobRange_throwsBadRequest() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria(null, null, LocalDate.of(2000, 1, 1), LocalDate.of(1990, 1, 1), null);
+        assertThrows(ResponseStatusException.class, () -> customerService.searchCustomers(criteria, null, 10));
+    }
+
+    @Test
+    void lookupCustomers_servesMatchesFromIndex() {
+        ReflectionTestUtils.setField(customerService, "maxPageSize", 100);
+        CustomerLookupMatchDTO match = new CustomerLookupMatchDTO(CustomerMapper.mapToResponseDTO(customer), 0.5);
+        when(lookupIndex.isReady()).thenReturn(true);
+        when(lookupIndex.search("Jon Deo", 10)).thenReturn(List.of(match));
+
+        assertEquals(List.of(match), customerService.lookupCustomers("Jon Deo", 10));
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    void lookupCustomers_whileIndexLoading_throwsServiceUnavailable() {
+        when(lookupIndex.isReady()).thenReturn(false);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> customerService.lookupCustomers("Jon", 10));
+        assertEquals(503, ex.getStatusCode().value());
+    }
+
+    @Test
+    void lookupCustomers_blankQuery_throwsBadRequest() {
+        assertThrows(ResponseStatusException.class, () -> customerService.lookupCustomers(" ", 10));
+        verify(lookupIndex, never()).search(any(), anyInt());
     }
 
     @Test
     void updateCustomer_success() {
         when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(customerRepository.existsByEmail(updateDTO.getEmail())).thenReturn(false);
-        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(customer);
 
-        CustomerResponseDTO result = customerService.updateCustomer(customer.getId(), updateDTO);
+        CustomerResponseDTO result = customerService.updateCustomer(customer.getId(), updateDTO, null);
 
         assertNotNull(result);
-        assertEquals(updateDTO.getFirstName(), result.getFirstName());
-        assertEquals(updateDTO.getLastName(), result.getLastName());
-        assertEquals(updateDTO.getEmail(), result.getEmail());
-        assertEquals(updateDTO.getAddress(), result.getAddress());
-        assertEquals(updateDTO.getPhone(), result.getPhone());
-        assertEquals(updateDTO.getDob(), result.getDob());
-        verify(customerRepository).save(any(Customer.class));
+        assertEquals(updateDTO.firstName(), result.firstName());
+        assertEquals(updateDTO.lastName(), result.lastName());
+        assertEquals(updateDTO.email(), result.email());
+        assertEquals(updateDTO.address(), result.address());
+        assertEquals(updateDTO.phone(), result.phone());
+        assertEquals(updateDTO.dob(), result.dob());
+        verify(customerRepository).saveAndFlush(any(Customer.class));
+        verify(customerRepository, never()).existsByEmail(any());
     }
 
     @Test
-    void updateCustomer_emailAlreadyExists_throwsException() {
+    void updateCustomer_emailAlreadyExists_propagatesConstraintViolation() {
         when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(customerRepository.existsByEmail(updateDTO.getEmail())).thenReturn(true);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(new DataIntegrityViolationException("uk_customers_email"));
 
-        assertThrows(CustomerAlreadyExistsException.class, ()->customerService.updateCustomer(customer.getId(), updateDTO));
-        verify(customerRepository, never()).save(any(Customer.class));
+        assertThrows(DataIntegrityViolationException.class, ()->customerService.updateCustomer(customer.getId(), updateDTO, null));
+    }
+
+    @Test
+    void updateCustomer_emailTakenPerIndexAndDatabase_throwsConflict() {
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        when(emailIndex.mayBeTaken(updateDTO.email(), customer.getId())).thenReturn(true);
+        when(customerRepository.existsByEmailAndIdNot(updateDTO.email(), customer.getId())).thenReturn(true);
+
+        assertThrows(CustomerAlreadyExistsException.class, () -> customerService.updateCustomer(customer.getId(), updateDTO, null));
+        verify(customerRepository, never()).saveAndFlush(any(Customer.class));
+    }
+
+    @Test
+    void updateCustomer_staleExpectedVersion_throwsMismatchWithoutWriting() {
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+
+        assertThrows(CustomerVersionMismatchException.class, () -> customerService.updateCustomer(customer.getId(), updateDTO, 5L));
+        verify(customerRepository, never()).saveAndFlush(any(Customer.class));
+    }
+
+    @Test
+    void patchCustomer_concurrentWriteAfterIfMatchCheck_throwsMismatch() {
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, customer.getId()));
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+1987654321", null);
+
+        assertThrows(CustomerVersionMismatchException.class, () -> customerService.partialUpdateCustomer(customer.getId(), patchDTO, 0L));
+    }
+
+    @Test
+    void patchCustomer_concurrentWriteWithoutIfMatch_propagatesOptimisticLockFailure() {
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, customer.getId()));
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, null, null, "+1987654321", null);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> customerService.partialUpdateCustomer(customer.getId(), patchDTO, null));
     }
 
     @Test
     void updateCustomer_notFound_throwsException() {
         UUID id = UUID.randomUUID();
         when(customerRepository.findById(id)).thenReturn(Optional.empty());
-        assertThrows(NoSuchCustomerExistsException.class, () -> customerService.updateCustomer(id, updateDTO));
+        assertThrows(NoSuchCustomerExistsException.class, () -> customerService.updateCustomer(id, updateDTO, null));
     }
 
     @Test
     void patchCustomer_success() {
         when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(customerRepository.existsByEmail("patched@example.com")).thenReturn(false);
-        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(customer);
 
         // Only updating email
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setEmail("patched@example.com");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "patched@example.com", null, null, null);
 
-        CustomerResponseDTO result = customerService.partialUpdateCustomer(customer.getId(), patchDTO);
+        CustomerResponseDTO result = customerService.partialUpdateCustomer(customer.getId(), patchDTO, null);
 
         assertNotNull(result);
-        assertEquals("patched@example.com", result.getEmail());
-        assertEquals(customer.getFirstName(), result.getFirstName());
-        assertEquals(customer.getLastName(), result.getLastName());
-        assertEquals(customer.getAddress(), result.getAddress());
-        assertEquals(customer.getPhone(), result.getPhone());
-        assertEquals(customer.getDob(), result.getDob());
-        verify(customerRepository).save(any(Customer.class));
+        assertEquals("patched@example.com", result.email());
+        assertEquals(customer.getFirstName(), result.firstName());
+        assertEquals(customer.getLastName(), result.lastName());
+        assertEquals(customer.getAddress(), result.address());
+        assertEquals(customer.getPhone(), result.phone());
+        assertEquals(customer.getDob(), result.dob());
+        verify(customerRepository).saveAndFlush(any(Customer.class));
+        verify(lookupIndex).put(result);
     }
 
     @Test
@@ -181,44 +359,44 @@ public class CustomerServiceTest {
         UUID randomId = UUID.randomUUID();
         when(customerRepository.findById(randomId)).thenReturn(Optional.empty());
 
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setEmail("patched@example.com");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "patched@example.com", null, null, null);
 
-        assertThrows(NoSuchCustomerExistsException.class, () -> customerService.partialUpdateCustomer(randomId, patchDTO));
+        assertThrows(NoSuchCustomerExistsException.class, () -> customerService.partialUpdateCustomer(randomId, patchDTO, null));
 
-        verify(customerRepository, never()).save(any(Customer.class));
+        verify(customerRepository, never()).saveAndFlush(any(Customer.class));
     }
 
     @Test
-    void patchCustomer_emailAlreadyExists_throwsException() {
+    void patchCustomer_emailAlreadyExists_propagatesConstraintViolation() {
         when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
-        when(customerRepository.existsByEmail("patched@example.com")).thenReturn(true);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(new DataIntegrityViolationException("uk_customers_email"));
 
-        CustomerPatchDTO patchDTO = new CustomerPatchDTO();
-        patchDTO.setEmail("patched@example.com");
+        CustomerPatchDTO patchDTO = new CustomerPatchDTO(null, null, "patched@example.com", null, null, null);
 
-        assertThrows(CustomerAlreadyExistsException.class, () -> customerService.partialUpdateCustomer(customer.getId(), patchDTO));
-        verify(customerRepository, never()).save(any(Customer.class));
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.partialUpdateCustomer(customer.getId(), patchDTO, null));
     }
 
     @Test
     void deleteCustomerById_success() {
         UUID id = customer.getId();
-        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
+        when(customerRepository.removeById(id)).thenReturn(1);
 
         customerService.deleteCustomerById(id);
 
-        verify(customerRepository).delete(customer);
+        verify(customerRepository).removeById(id);
+        verify(customerRepository, never()).findById(any());
+        verify(lookupIndex).remove(id);
+        verify(emailIndex).remove(id);
     }
 
     @Test
     void deleteCustomerById_notFound_throwsException() {
         // arrange
         UUID id = UUID.randomUUID();
-        when(customerRepository.findById(id)).thenReturn(Optional.empty());
+        when(customerRepository.removeById(id)).thenReturn(0);
 
         assertThrows(NoSuchCustomerExistsException.class, () -> customerService.deleteCustomerById(id));
-        verify(customerRepository, never()).delete(any(Customer.class));
+        verify(lookupIndex, never()).remove(any());
     }
 
 
@@ -0,0 +1,127 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.config.CustomerCacheConfig;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerPatchDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.dto.CustomerUpdateDTO;
+import com.banking.backend.customer.index.CustomerEmailIndex;
+import com.banking.backend.customer.metrics.PersistenceStats;
+import com.banking.backend.customer.metrics.StatementBudget;
+import com.banking.backend.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.time.LocalDate;
+
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CustomerStatementBudgetTest {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerEmailIndex emailIndex;
+
+    private CustomerResponseDTO created;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Until the email index has loaded every create pays an existence check on top of its INSERT
+        while (!emailIndex.isReady()) {
+            Thread.sleep(10);
+        }
+        created = customerService.createCustomer(new CustomerCreateDTO("John", "Doe", "john.budget@example.com", "123 Main St", "+12345678901", LocalDate.of(1990, 1, 1)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Through the service, so the email index does not keep entries for deleted rows
+        customerRepository.findAll().forEach(customer -> customerService.deleteCustomerById(customer.getId()));
+        cacheManager.getCache(CustomerCacheConfig.CUSTOMERS_CACHE).clear();
+    }
+
+    @Test
+    void createCustomer_singleInsert() {
+        StatementBudget.assertAtMost(1, () -> customerService.createCustomer(
+                new CustomerCreateDTO("Jane", "Doe", "jane.budget@example.com", "456 Side Ave", "+12345678902", LocalDate.of(1991, 1, 1))));
+    }
+
+    @Test
+    void getCustomerById_singleSelect() {
+        StatementBudget.assertAtMost(1, () -> customerService.getCustomerById(created.id()));
+    }
+
+    @Test
+    void getAllCustomers_noPerRowQueries() {
+        customerService.createCustomer(new CustomerCreateDTO("Jane", "Doe", "jane.budget@example.com", "456 Side Ave", "+12345678902", LocalDate.of(1991, 1, 1)));
+        StatementBudget.assertAtMost(1, () -> customerService.getAllCustomers());
+    }
+
+    @Test
+    void updateCustomer_selectAndUpdate() {
+        StatementBudget.assertAtMost(2, () -> customerService.updateCustomer(created.id(),
+                new CustomerUpdateDTO("Johnny", "Doe", "johnny.budget@example.com", "456 Elm St", "+19876543210", LocalDate.of(1990, 1, 1)), null));
+    }
+
+    @Test
+    void partialUpdateCustomer_selectAndUpdate() {
+        CustomerPatchDTO patch = new CustomerPatchDTO(null, null, null, null, "+19876543210", null);
+        StatementBudget.assertAtMost(2, () -> customerService.partialUpdateCustomer(created.id(), patch, null));
+    }
+
+    @Test
+    void partialUpdateCustomer_updatesOnlyPatchedColumns() {
+        CustomerPatchDTO patch = new CustomerPatchDTO(null, null, null, null, "+19876543210", null);
+        PersistenceStats stats = PersistenceStats.open(true);
+        try {
+            customerService.partialUpdateCustomer(created.id(), patch, null);
+        } finally {
+            stats.close();
+        }
+
+        String update = stats.getSql().stream().filter(sql -> sql.startsWith("update")).findFirst().orElseThrow();
+        assertTrue(update.contains("phone=") && update.contains("updated_at="), update);
+        assertFalse(update.contains("email=") || update.contains("first_name=") || update.contains("address="), update);
+    }
+
+    @Test
+    void deleteCustomerById_singleDelete() {
+        StatementBudget.assertAtMost(1, () -> customerService.deleteCustomerById(created.id()));
+    }
+
+    @Test
+    void getById_recordsRequestAndTransactionMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/customers/" + created.id())).andExpect(status().isOk());
+
+        DistributionSummary perRequest = meterRegistry.find("customer.request.jdbc.statements")
+                .tag("uri", "/api/v1/customers/{id}").summary();
+        DistributionSummary perTransaction = meterRegistry.find("customer.transaction.jdbc.statements")
+                .tag("method", "getCustomerById").summary();
+        assertNotNull(perRequest);
+        assertNotNull(perTransaction);
+        assertTrue(perRequest.max() <= 1);
+        assertTrue(perTransaction.max() <= 1);
+    }
+}
@@ -0,0 +1,166 @@
+package com.banking.backend.customer.service;
+
+import com.banking.backend.customer.dto.CustomerBatchResultDTO;
+import com.banking.backend.customer.dto.CustomerCreateDTO;
+import com.banking.backend.customer.dto.CustomerPageDTO;
+import com.banking.backend.customer.dto.CustomerResponseDTO;
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.shard.EmbeddedShards;
+import com.banking.backend.customer.shard.ShardTopology;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+// Customers spread over two embedded PostgreSQL shards (customer.shards.*). The databases outlive the test class
+// for as long as the cached context uses them and are stopped by the embedded server's shutdown hook.
+@SpringBootTest
+public class ShardedCustomerServiceTest {
+
+    private static EmbeddedShards embedded;
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerBatchService customerBatchService;
+    @Autowired
+    private ShardTopology topology;
+    @Autowired
+    @Qualifier("directoryDataSource")
+    private DataSource directory;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) throws IOException {
+        embedded = EmbeddedShards.start();
+        registry.add("spring.datasource.url", embedded::directoryUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("customer.shards.enabled", () -> "true");
+        for (String shard : EmbeddedShards.SHARDS) {
+            registry.add("customer.shards.nodes." + shard + ".url", () -> embedded.shardUrl(shard));
+        }
+    }
+
+    @BeforeEach
+    void cleanUp() {
+        new JdbcTemplate(directory).execute("truncate customer_email_directory");
+        for (String shard : topology.shards()) {
+            shardJdbc(shard).execute("truncate customers, customer_emails");
+        }
+    }
+
+    private JdbcTemplate shardJdbc(String shard) {
+        return new JdbcTemplate(topology.dataSources().get(shard));
+    }
+
+    private int rowsOn(String shard) {
+        return shardJdbc(shard).queryForObject("select count(*) from customers", Integer.class);
+    }
+
+    private int claims() {
+        return new JdbcTemplate(directory).queryForObject("select count(*) from customer_email_directory", Integer.class);
+    }
+
+    private CustomerCreateDTO dto(String email, int n) {
+        return new CustomerCreateDTO("John", "Doe", email, n + " Main St", "+1555" + String.format("%07d", n), LocalDate.of(1990, 1, 1));
+    }
+
+    private List<CustomerCreateDTO> batch(String prefix, int size) {
+        List<CustomerCreateDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            dtos.add(dto(prefix + i + "@example.com", i));
+        }
+        return dtos;
+    }
+
+    @Test
+    void createCustomers_spreadsBatchOverShardsAndClaimsEveryEmail() {
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(batch("spread", 20));
+
+        assertTrue(results.stream().allMatch(result -> result.status() == CustomerBatchResultDTO.Status.CREATED));
+        for (CustomerBatchResultDTO result : results) {
+            UUID id = result.customer().id();
+            assertEquals(1, topology.present(topology.shardFor(id), List.of(id)).size());
+        }
+        assertTrue(rowsOn("s1") > 0 && rowsOn("s2") > 0);
+        assertEquals(20, rowsOn("s1") + rowsOn("s2"));
+        assertEquals(20, claims());
+    }
+
+    @Test
+    void createCustomers_emailTakenOnAnotherShard_isDuplicate() {
+        customerService.createCustomer(dto("dup@example.com", 1));
+
+        List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(List.of(dto("dup@example.com", 2), dto("fresh@example.com", 3)));
+
+        assertEquals(CustomerBatchResultDTO.Status.DUPLICATE, results.get(0).status());
+        assertEquals(CustomerBatchResultDTO.Status.CREATED, results.get(1).status());
+        assertEquals(2, rowsOn("s1") + rowsOn("s2"));
+    }
+
+    @Test
+    void createCustomers_failingShard_onlyFailsItsOwnCustomers() {
+        JdbcTemplate s2 = shardJdbc("s2");
+        s2.execute("create function refuse_insert() returns trigger language plpgsql as $$ begin raise exception 'shard unavailable'; end $$");
+        s2.execute("create trigger refuse_insert before insert on customers for each row execute function refuse_insert()");
+        try {
+            List<CustomerBatchResultDTO> results = customerBatchService.createCustomers(batch("partial", 20));
+
+            long created = results.stream().filter(result -> result.status() == CustomerBatchResultDTO.Status.CREATED).count();
+            long failed = results.stream().filter(result -> result.status() == CustomerBatchResultDTO.Status.FAILED).count();
+            assertTrue(created > 0 && failed > 0);
+            assertEquals(20, created + failed);
+            assertEquals(created, rowsOn("s1"));
+            assertEquals(0, rowsOn("s2"));
+            // The failed customers gave their emails back
+            assertEquals(created, claims());
+        } finally {
+            s2.execute("drop trigger refuse_insert on customers");
+            s2.execute("drop function refuse_insert()");
+        }
+    }
+
+    @Test
+    void getCustomerPage_mergesShardsInCreationOrder() {
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            created.add(customerService.createCustomer(dto("page" + i + "@example.com", i)).id());
+        }
+
+        List<UUID> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CustomerPageDTO page = customerService.getCustomerPage(cursor, 5);
+            page.getItems().forEach(customer -> paged.add(customer.id()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertTrue(rowsOn("s1") > 0 && rowsOn("s2") > 0);
+        assertEquals(created, paged);
+    }
+
+    @Test
+    void customerOnBothShardsMidMove_isListedOnce() {
+        CustomerResponseDTO customer = customerService.createCustomer(dto("twice@example.com", 1));
+        String other = topology.shardFor(customer.id()).equals("s1") ? "s2" : "s1";
+        // The copy a move commits on the target before deleting the original
+        topology.insert(other, List.of(new Customer(customer.id(), customer.firstName(), customer.lastName(), customer.email(),
+                customer.address(), customer.phone(), customer.dob())));
+
+        assertEquals(List.of(customer.id()), customerService.getAllCustomers().stream().map(CustomerResponseDTO::id).toList());
+        assertEquals(List.of(customer.id()), customerService.getCustomerPage(null, 10).getItems().stream().map(CustomerResponseDTO::id).toList());
+    }
+}
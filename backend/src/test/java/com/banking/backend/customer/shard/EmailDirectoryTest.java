@@ -0,0 +1,131 @@
+package com.banking.backend.customer.shard;
+
+import com.banking.backend.customer.exception.CustomerAlreadyExistsException;
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.model.UuidV7Generator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+
+public class EmailDirectoryTest {
+
+    private static EmbeddedShards embedded;
+    private static JdbcTemplate directoryJdbc;
+    private static Map<String, DataSource> shards;
+
+    private ShardTopology topology;
+    private EmailDirectory directory;
+
+    @BeforeAll
+    static void startDatabases() throws Exception {
+        embedded = EmbeddedShards.start();
+        directoryJdbc = new JdbcTemplate(embedded.migratedDirectory());
+        shards = embedded.migratedShards();
+    }
+
+    @AfterAll
+    static void stopDatabases() throws Exception {
+        embedded.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        directoryJdbc.execute("truncate customer_email_directory");
+        shards.values().forEach(shard -> new JdbcTemplate(shard).execute("truncate customers, customer_emails"));
+        topology = new ShardTopology(new ShardRing(EmbeddedShards.SHARDS, 128), null, shards);
+        directory = new EmailDirectory(directoryJdbc, topology, Duration.ofMinutes(5));
+    }
+
+    // A claim the process that made it never followed up on, as if it died an hour ago
+    private void staleClaim(String email, UUID holder) {
+        directoryJdbc.update("insert into customer_email_directory (email, customer_id, claimed_at) values (?, ?, now() - interval '1 hour')", email, holder);
+    }
+
+    private UUID holder(String email) {
+        return directoryJdbc.queryForObject("select customer_id from customer_email_directory where email = ?", UUID.class, email);
+    }
+
+    private void onShard(UUID id, String email) {
+        topology.insert(topology.shardFor(id), List.of(new Customer(id, "John", "Doe", email, "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1))));
+    }
+
+    @Test
+    void claimAll_refusesOnlyEmailsHeldByOthers() {
+        UUID other = UuidV7Generator.next();
+        UUID first = UuidV7Generator.next();
+        UUID second = UuidV7Generator.next();
+        UUID third = UuidV7Generator.next();
+        directory.claim("taken@example.com", other);
+
+        Set<String> refused = directory.claimAll(Map.of("a@example.com", first, "taken@example.com", second, "b@example.com", third));
+
+        assertEquals(Set.of("taken@example.com"), refused);
+        assertEquals(first, holder("a@example.com"));
+        assertEquals(third, holder("b@example.com"));
+        assertEquals(other, holder("taken@example.com"));
+        assertTrue(directory.isTaken("a@example.com", null));
+        assertFalse(directory.isTaken("a@example.com", first));
+    }
+
+    @Test
+    void claimAll_sameOwnerAgain_isNotRefused() {
+        UUID id = UuidV7Generator.next();
+        directory.claimAll(Map.of("again@example.com", id));
+
+        assertEquals(Set.of(), directory.claimAll(Map.of("again@example.com", id)));
+    }
+
+    @Test
+    void claim_freshClaimOfMissingCustomer_isRefused() {
+        directory.claim("pending@example.com", UuidV7Generator.next());
+
+        assertThrows(CustomerAlreadyExistsException.class, () -> directory.claim("pending@example.com", UuidV7Generator.next()));
+    }
+
+    @Test
+    void claim_staleClaimOfMissingCustomer_isTakenOver() {
+        staleClaim("orphan@example.com", UuidV7Generator.next());
+        UUID id = UuidV7Generator.next();
+
+        directory.claim("orphan@example.com", id);
+
+        assertEquals(id, holder("orphan@example.com"));
+    }
+
+    // The customer moved to another email, but the release of the old one never ran
+    @Test
+    void claim_staleClaimOfCustomerWhoChangedEmail_isTakenOver() {
+        UUID previousHolder = UuidV7Generator.next();
+        onShard(previousHolder, "new@example.com");
+        staleClaim("old@example.com", previousHolder);
+        UUID id = UuidV7Generator.next();
+
+        directory.claim("old@example.com", id);
+
+        assertEquals(id, holder("old@example.com"));
+    }
+
+    @Test
+    void claim_staleClaimOfCustomerStillHoldingEmail_isRefused() {
+        UUID holder = UuidV7Generator.next();
+        onShard(holder, "kept@example.com");
+        staleClaim("kept@example.com", holder);
+
+        assertThrows(CustomerAlreadyExistsException.class, () -> directory.claim("kept@example.com", UuidV7Generator.next()));
+        assertEquals(holder, holder("kept@example.com"));
+    }
+}
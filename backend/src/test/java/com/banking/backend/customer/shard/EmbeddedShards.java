@@ -0,0 +1,69 @@
+package com.banking.backend.customer.shard;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A throwaway PostgreSQL process holding a directory database and two shard databases, so the sharded paths can be
+// tested without Docker. The database names end in _test, which CleanMigrateConfig insists on.
+public final class EmbeddedShards implements AutoCloseable {
+
+    public static final String DIRECTORY = "directory_test";
+    public static final List<String> SHARDS = List.of("s1", "s2");
+
+    private final EmbeddedPostgres postgres;
+
+    private EmbeddedShards(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    public static EmbeddedShards start() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        JdbcTemplate admin = new JdbcTemplate(postgres.getPostgresDatabase());
+        admin.execute("create database " + DIRECTORY);
+        for (String shard : SHARDS) {
+            admin.execute("create database " + database(shard));
+        }
+        return new EmbeddedShards(postgres);
+    }
+
+    public String directoryUrl() {
+        return postgres.getJdbcUrl("postgres", DIRECTORY);
+    }
+
+    public String shardUrl(String shard) {
+        return postgres.getJdbcUrl("postgres", database(shard));
+    }
+
+    // Every database migrated with the application's scripts, the way ShardDataSourceConfig migrates shards
+    public DataSource migratedDirectory() {
+        return migrate(postgres.getDatabase("postgres", DIRECTORY));
+    }
+
+    public Map<String, DataSource> migratedShards() {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (String shard : SHARDS) {
+            shards.put(shard, migrate(postgres.getDatabase("postgres", database(shard))));
+        }
+        return shards;
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+
+    private static String database(String shard) {
+        return shard + "_test";
+    }
+
+    private static DataSource migrate(DataSource dataSource) {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        return dataSource;
+    }
+}
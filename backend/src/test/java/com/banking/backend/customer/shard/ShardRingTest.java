@@ -0,0 +1,64 @@
+package com.banking.backend.customer.shard;
+
+import com.banking.backend.customer.model.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+
+public class ShardRingTest {
+
+    private static final int IDS = 100_000;
+
+    @Test
+    void shardFor_isStableAndIndependentOfListingOrder() {
+        ShardRing ring = new ShardRing(List.of("s1", "s2", "s3"), 128);
+        ShardRing reordered = new ShardRing(List.of("s3", "s1", "s2"), 128);
+
+        for (UUID id : ids()) {
+            assertEquals(ring.shardFor(id), ring.shardFor(id));
+            assertEquals(ring.shardFor(id), reordered.shardFor(id));
+        }
+    }
+
+    @Test
+    void shardFor_spreadsTimeOrderedIdsEvenly() {
+        ShardRing ring = new ShardRing(List.of("s1", "s2", "s3"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        ids().forEach(id -> counts.merge(ring.shardFor(id), 1, Integer::sum));
+
+        assertEquals(3, counts.size());
+        // Within 15% of an even third with 128 points per shard
+        counts.values().forEach(count -> assertTrue(Math.abs(count - IDS / 3) < IDS / 3 * 0.15, "count " + count));
+    }
+
+    @Test
+    void addingAShard_onlyMovesIdsToTheNewShard() {
+        ShardRing before = new ShardRing(List.of("s1", "s2", "s3"), 128);
+        ShardRing after = new ShardRing(List.of("s1", "s2", "s3", "s4"), 128);
+
+        int moved = 0;
+        for (UUID id : ids()) {
+            String owner = after.shardFor(id);
+            if (!owner.equals(before.shardFor(id))) {
+                assertEquals("s4", owner);
+                moved++;
+            }
+        }
+        // About a quarter of the ids move; a modulo scheme would move three quarters
+        assertTrue(moved > IDS * 0.18 && moved < IDS * 0.32, "moved " + moved);
+    }
+
+    private static List<UUID> ids() {
+        List<UUID> ids = new ArrayList<>(IDS);
+        for (int i = 0; i < IDS; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+        return ids;
+    }
+}
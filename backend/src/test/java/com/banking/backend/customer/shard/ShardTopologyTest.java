@@ -0,0 +1,116 @@
+package com.banking.backend.customer.shard;
+
+import com.banking.backend.customer.model.Customer;
+import com.banking.backend.customer.model.UuidV7Generator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+
+// Rebalancing from a one-shard ring (s1) to a two-shard ring (s1, s2), against embedded PostgreSQL
+public class ShardTopologyTest {
+
+    private static EmbeddedShards embedded;
+    private static Map<String, DataSource> shards;
+
+    private ShardTopology topology;
+
+    @BeforeAll
+    static void startDatabases() throws Exception {
+        embedded = EmbeddedShards.start();
+        shards = embedded.migratedShards();
+    }
+
+    @AfterAll
+    static void stopDatabases() throws Exception {
+        embedded.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        shards.values().forEach(shard -> new JdbcTemplate(shard).execute("truncate customers, customer_emails"));
+        topology = new ShardTopology(new ShardRing(EmbeddedShards.SHARDS, 128), new ShardRing(List.of("s1"), 128), shards);
+    }
+
+    private UUID idOwnedBy(String shard) {
+        UUID id = UuidV7Generator.next();
+        while (!topology.shardFor(id).equals(shard)) {
+            id = UuidV7Generator.next();
+        }
+        return id;
+    }
+
+    private Customer customer(UUID id, String email) {
+        return new Customer(id, "John", "Doe", email, "123 Main St", "+1234567890", LocalDate.of(1990, 1, 1));
+    }
+
+    private String emailOn(String shard, UUID id) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject("select email from customers where id = ?", String.class, id);
+    }
+
+    @Test
+    void settle_movesCustomerToTheShardTheRingNowAssigns() {
+        UUID id = idOwnedBy("s2");
+        topology.insert("s1", List.of(customer(id, "moving@example.com")));
+
+        topology.settle(id);
+        topology.settle(id);
+
+        assertEquals(Set.of(), topology.present("s1", List.of(id)));
+        assertEquals(Set.of(id), topology.present("s2", List.of(id)));
+        assertEquals("moving@example.com", emailOn("s2", id));
+    }
+
+    @Test
+    void settle_leavesCustomersTheRingKeeps() {
+        UUID id = idOwnedBy("s1");
+        topology.insert("s1", List.of(customer(id, "staying@example.com")));
+
+        topology.settle(id);
+
+        assertEquals(Set.of(id), topology.present("s1", List.of(id)));
+        assertEquals(Set.of(), topology.present("s2", List.of(id)));
+    }
+
+    @Test
+    void move_afterCopyWithoutDelete_finishesTheMove() {
+        UUID id = idOwnedBy("s2");
+        // What a process dying between the copy and the delete leaves behind
+        topology.insert("s1", List.of(customer(id, "half@example.com")));
+        topology.insert("s2", List.of(customer(id, "half@example.com")));
+
+        assertTrue(topology.move(id, "s1", "s2"));
+        assertFalse(topology.move(id, "s1", "s2"));
+
+        assertEquals(Set.of(), topology.present("s1", List.of(id)));
+        assertEquals(Set.of(id), topology.present("s2", List.of(id)));
+    }
+
+    @Test
+    void holdsEmail_checksBothRingsAndTheCurrentEmail() {
+        UUID id = idOwnedBy("s2");
+        // Not moved yet: only the previous ring's owner has the row
+        topology.insert("s1", List.of(customer(id, "held@example.com")));
+
+        assertTrue(topology.holdsEmail(id, "held@example.com"));
+        assertFalse(topology.holdsEmail(id, "other@example.com"));
+        assertFalse(topology.holdsEmail(idOwnedBy("s2"), "held@example.com"));
+    }
+
+    @Test
+    void readPhases_readAddedShardsAfterTheirSources() {
+        assertEquals(List.of(List.of("s1"), List.of("s2")), topology.readPhases());
+        assertEquals(List.of(List.of("s1", "s2")), new ShardTopology(new ShardRing(EmbeddedShards.SHARDS, 128), null, shards).readPhases());
+    }
+}
@@ -0,0 +1,9 @@
+#!/bin/bash
+# Runs once, when the primary's data directory is first initialised: creates the database the backend's tests
+# migrate and clean (src/test/resources/application.properties), so they never touch the application's own.
+# On an existing volume, create it by hand: createdb -U "$POSTGRES_USER" "${POSTGRES_DB}_test"
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+	CREATE DATABASE ${POSTGRES_DB}_test OWNER ${POSTGRES_USER};
+EOSQL